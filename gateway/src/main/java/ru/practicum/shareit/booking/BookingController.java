@@ -7,12 +7,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.validator.StartBeforeEnd;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
 
 import static ru.practicum.shareit.item.ItemController.USER_HEADER;
 
@@ -56,6 +59,13 @@ public class BookingController {
         return bookingClient.approveBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> approveBookings(@RequestHeader(USER_HEADER) Long userId,
+                                                  @RequestBody @NotEmpty List<@Valid BookingApprovalDto> approvals) {
+        log.info("Approve {} bookings by user with userId={}", approvals.size(), userId);
+        return bookingClient.approveBookings(userId, approvals);
+    }
+
     @GetMapping("/owner")
     public ResponseEntity<Object> getBookingsByOwner(@RequestHeader(USER_HEADER) Long userId,
                                                        @RequestParam(name = "state", defaultValue = "all") String stateParam,
@@ -66,4 +76,38 @@ public class BookingController {
         log.info("Get bookings by owner with userId={}, state {},  from={}, size={}", userId, stateParam, from, size);
         return bookingClient.getBookingsByOwner(userId, state, from, size);
     }
+
+    @GetMapping("/summary")
+    public ResponseEntity<Object> getBookingsSummary(@RequestHeader(USER_HEADER) Long userId) {
+        log.info("Get bookings summary by user with userId={}", userId);
+        return bookingClient.getBookingsSummary(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getBookingsSummaryByOwner(@RequestHeader(USER_HEADER) Long userId) {
+        log.info("Get bookings summary by owner with userId={}", userId);
+        return bookingClient.getBookingsSummaryByOwner(userId);
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<Object> getBookings(@RequestHeader(USER_HEADER) Long userId,
+                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                              @RequestParam String cursor,
+                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Get booking with state {}, userId={}, cursor={}, size={}", stateParam, userId, cursor, size);
+        return bookingClient.getBookings(userId, state, cursor, size);
+    }
+
+    @GetMapping(path = "/owner", params = "cursor")
+    public ResponseEntity<Object> getBookingsByOwner(@RequestHeader(USER_HEADER) Long userId,
+                                                     @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                     @RequestParam String cursor,
+                                                     @Positive @RequestParam(defaultValue = "10") Integer size) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Get bookings by owner with userId={}, state {}, cursor={}, size={}", userId, stateParam, cursor, size);
+        return bookingClient.getBookingsByOwner(userId, state, cursor, size);
+    }
 }
@@ -14,7 +14,9 @@ public enum BookingState {
 	// Отклоненные
 	REJECTED,
 	// Ожидающие подтверждения
-	WAITING;
+	WAITING,
+	// Не подтвержденные до начала
+	EXPIRED;
 
 	public static Optional<BookingState> from(String stringState) {
 		for (BookingState state : values()) {
@@ -11,6 +11,8 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -31,6 +33,10 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> importItems(Long userId, List<ItemDto> items) {
+        return post("/import", userId, items);
+    }
+
     public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
@@ -51,13 +57,40 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItem(Long userId, String text, Integer from, Integer size) {
+    public ResponseEntity<Object> searchItem(Long userId, String text, Boolean ranked, Boolean fuzzy,
+                                             Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
+                "ranked", ranked,
+                "fuzzy", fuzzy,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get("/search?text={text}&ranked={ranked}&fuzzy={fuzzy}&from={from}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> suggestItemNames(Long userId, String prefix, Integer limit) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "limit", limit
+        );
+        return get("/suggest?prefix={prefix}&limit={limit}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getItemAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getItemComments(Long userId, Long itemId, Long after, Integer limit) {
+        Map<String, Object> parameters = Map.of(
+                "after", after,
+                "limit", limit
+        );
+        return get("/" + itemId + "/comments?after={after}&limit={limit}", userId, parameters);
     }
 
     public ResponseEntity<Object> createComment(Long userId, Long itemId, CommentDto commentDto) {
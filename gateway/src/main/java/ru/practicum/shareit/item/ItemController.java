@@ -2,6 +2,9 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -11,8 +14,12 @@ import ru.practicum.shareit.validationgroup.CreateGroup;
 import ru.practicum.shareit.validationgroup.UpdateGroup;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping(path = "/items")
@@ -22,6 +29,7 @@ import javax.validation.constraints.PositiveOrZero;
 public class ItemController {
     public static final String USER_HEADER = "X-Sharer-User-Id";
     private final ItemClient itemClient;
+    private final ItemImporter itemImporter;
 
     @PostMapping
     public ResponseEntity<Object> createItem(@RequestHeader(USER_HEADER) Long userId,
@@ -30,6 +38,14 @@ public class ItemController {
         return itemClient.createItem(userId, itemDto);
     }
 
+    @PostMapping(path = "/import", consumes = {ItemImporter.APPLICATION_NDJSON, ItemImporter.TEXT_CSV})
+    public ResponseEntity<Object> importItems(@RequestHeader(USER_HEADER) Long userId,
+                                              @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                              InputStream body) throws IOException {
+        log.info("Importing items, userId={}, contentType={}", userId, contentType);
+        return itemImporter.importItems(userId, contentType, body);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> updateItem(@RequestHeader(USER_HEADER) Long userId,
                                              @PathVariable Long itemId,
@@ -63,10 +79,38 @@ public class ItemController {
     @GetMapping("/search")
     public ResponseEntity<Object> searchItem(@RequestHeader(USER_HEADER) Long userId,
                                              @RequestParam String text,
+                                             @RequestParam(defaultValue = "false") Boolean ranked,
+                                             @RequestParam(defaultValue = "false") Boolean fuzzy,
                                              @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
                                              @Positive @RequestParam(defaultValue = "10") Integer size) {
-        log.info("Searching items with text={}", text);
-        return itemClient.searchItem(userId, text, from, size);
+        log.info("Searching items with text={}, ranked={}, fuzzy={}", text, ranked, fuzzy);
+        return itemClient.searchItem(userId, text, ranked, fuzzy, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItemNames(@RequestHeader(USER_HEADER) Long userId,
+                                                   @RequestParam String prefix,
+                                                   @Positive @Max(20) @RequestParam(defaultValue = "10") Integer limit) {
+        log.info("Suggesting item names with prefix={}, limit={}", prefix, limit);
+        return itemClient.suggestItemNames(userId, prefix, limit);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getItemAvailability(@RequestHeader(USER_HEADER) Long userId,
+                                                      @PathVariable Long itemId,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Getting availability of item with itemId={}, from={}, to={}", itemId, from, to);
+        return itemClient.getItemAvailability(userId, itemId, from, to);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getItemComments(@RequestHeader(USER_HEADER) Long userId,
+                                                  @PathVariable Long itemId,
+                                                  @PositiveOrZero @RequestParam(defaultValue = "0") Long after,
+                                                  @Positive @Max(100) @RequestParam(defaultValue = "20") Integer limit) {
+        log.info("Getting comments of item with itemId={}, after={}, limit={}", itemId, after, limit);
+        return itemClient.getItemComments(userId, itemId, after, limit);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -75,6 +119,4 @@ public class ItemController {
         log.info("Creating comment {}, itemId={}", commentDto, itemId);
         return itemClient.createComment(userId, itemId, commentDto);
     }
-
-
 }
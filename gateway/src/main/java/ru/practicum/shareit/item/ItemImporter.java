@@ -0,0 +1,349 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.validator.HibernateValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.validationgroup.CreateGroup;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.groups.Default;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams an NDJSON or CSV upload to the server in batches. Rows are parsed and validated one by one
+ * with the same rules as a single created item, so only one batch is held in memory whatever the size
+ * of the upload. Rows are numbered by the line they start on; the report keeps the first
+ * {@value #MAX_REPORTED_ERRORS} errors and counts the rest. A batch the server refuses is reported row
+ * by row with the server's message, and the upload goes on, so the report still covers the batches
+ * imported before and after it.
+ */
+@Service
+@Slf4j
+public class ItemImporter {
+    public static final String TEXT_CSV = "text/csv";
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final List<String> CSV_COLUMNS = List.of("name", "description", "available", "requestid");
+    private static final Locale MESSAGE_LOCALE = new Locale("ru");
+
+    private final ItemClient itemClient;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+
+    public ItemImporter(ItemClient itemClient, ObjectMapper objectMapper,
+                        @Value("${shareit.item.import.batch-size:500}") int batchSize) {
+        this.itemClient = itemClient;
+        this.objectMapper = objectMapper;
+        // the report goes back as a whole, so its messages do not follow the request locale
+        this.validator = Validation.byProvider(HibernateValidator.class)
+                .configure()
+                .defaultLocale(MESSAGE_LOCALE)
+                .buildValidatorFactory()
+                .getValidator();
+        this.batchSize = batchSize;
+    }
+
+    public ResponseEntity<Object> importItems(Long userId, MediaType contentType, InputStream body) throws IOException {
+        Charset charset = contentType.getCharset() == null ? StandardCharsets.UTF_8 : contentType.getCharset();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset));
+        RowReader rows = contentType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV))
+                ? new CsvRowReader(reader) : new NdjsonRowReader(reader);
+        ItemImportReportDto report = new ItemImportReportDto();
+        List<ItemDto> batch = new ArrayList<>(batchSize);
+        List<Long> batchRows = new ArrayList<>(batchSize);
+        Row row;
+        while ((row = rows.next()) != null) {
+            report.setReceived(report.getReceived() + 1);
+            String error = row.error != null ? row.error : validate(row.item);
+            if (error != null) {
+                addErrors(report, List.of(new ItemImportErrorDto(row.number, error)));
+                continue;
+            }
+            batch.add(row.item);
+            batchRows.add(row.number);
+            if (batch.size() == batchSize) {
+                send(userId, batch, batchRows, report);
+            }
+        }
+        if (!batch.isEmpty()) {
+            send(userId, batch, batchRows, report);
+        }
+        log.info("Imported {} of {} items, userId={}", report.getImported(), report.getReceived(), userId);
+        return ResponseEntity.ok(report);
+    }
+
+    private void send(Long userId, List<ItemDto> batch, List<Long> batchRows, ItemImportReportDto report) {
+        ResponseEntity<Object> response = itemClient.importItems(userId, batch);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            ItemImportReportDto batchReport = objectMapper.convertValue(response.getBody(), ItemImportReportDto.class);
+            report.setImported(report.getImported() + batchReport.getImported());
+            // the server numbers rows by their position in the batch
+            addErrors(report, batchReport.getErrors().stream()
+                    .map(error -> new ItemImportErrorDto(batchRows.get(error.getRow().intValue() - 1),
+                            error.getMessage()))
+                    .collect(Collectors.toList()));
+        } else {
+            String message = serverError(response);
+            log.warn("Server refused rows {}..{} of the import: {}", batchRows.get(0),
+                    batchRows.get(batchRows.size() - 1), message);
+            addErrors(report, batchRows.stream()
+                    .map(row -> new ItemImportErrorDto(row, message))
+                    .collect(Collectors.toList()));
+        }
+        batch.clear();
+        batchRows.clear();
+    }
+
+    private String serverError(ResponseEntity<Object> response) {
+        if (response.getBody() instanceof byte[]) {
+            try {
+                JsonNode body = objectMapper.readTree((byte[]) response.getBody());
+                JsonNode message = body.hasNonNull("errorMessage") ? body.get("errorMessage") : body.get("error");
+                if (message != null && message.isTextual()) {
+                    return message.asText();
+                }
+            } catch (IOException e) {
+                log.debug("Unreadable server error body", e);
+            }
+        }
+        return String.format("Сервер отклонил пакет, статус %d.", response.getStatusCodeValue());
+    }
+
+    private String validate(ItemDto item) {
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(item, CreateGroup.class, Default.class);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static void addErrors(ItemImportReportDto report, List<ItemImportErrorDto> errors) {
+        report.setFailed(report.getFailed() + errors.size());
+        for (ItemImportErrorDto error : errors) {
+            if (report.getErrors().size() == MAX_REPORTED_ERRORS) {
+                break;
+            }
+            report.getErrors().add(error);
+        }
+    }
+
+    private static final class Row {
+        private final long number;
+        private final ItemDto item;
+        private final String error;
+
+        private Row(long number, ItemDto item, String error) {
+            this.number = number;
+            this.item = item;
+            this.error = error;
+        }
+    }
+
+    private interface RowReader {
+        /**
+         * @return the next row, null at the end of the input
+         */
+        Row next() throws IOException;
+    }
+
+    /**
+     * One JSON object per line; blank lines are skipped.
+     */
+    private final class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private long lineNumber;
+
+        private NdjsonRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            try {
+                ItemDto item = objectMapper.readValue(line, ItemDto.class);
+                if (item == null) {
+                    return new Row(lineNumber, null, "Некорректный JSON: ожидался объект.");
+                }
+                return new Row(lineNumber, item, null);
+            } catch (JsonProcessingException e) {
+                return new Row(lineNumber, null, "Некорректный JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * RFC 4180 records under a header naming the name, description, available and requestId columns in
+     * any order; quoted fields may contain commas, doubled quotes and line breaks.
+     */
+    private static final class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private int[] columns;
+        private long lineNumber = 1;
+        private boolean ended;
+
+        private CsvRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            if (columns == null && !readHeader()) {
+                return null;
+            }
+            List<String> fields;
+            long number;
+            do {
+                number = lineNumber;
+                fields = readRecord();
+            } while (fields != null && fields.size() == 1 && fields.get(0).isBlank());
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() != columns.length) {
+                return new Row(number, null,
+                        String.format("Ожидалось столбцов: %d, найдено: %d.", columns.length, fields.size()));
+            }
+            ItemDto item = new ItemDto();
+            for (int i = 0; i < columns.length; i++) {
+                String value = fields.get(i);
+                switch (columns[i]) {
+                    case 0:
+                        item.setName(value);
+                        break;
+                    case 1:
+                        item.setDescription(value);
+                        break;
+                    case 2:
+                        if (value.isBlank()) {
+                            break;
+                        }
+                        if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                            return new Row(number, null, "available: должно быть true или false");
+                        }
+                        item.setAvailable(Boolean.parseBoolean(value));
+                        break;
+                    case 3:
+                        if (value.isBlank()) {
+                            break;
+                        }
+                        try {
+                            item.setRequestId(Long.parseLong(value.strip()));
+                        } catch (NumberFormatException e) {
+                            return new Row(number, null, "requestId: должно быть числом");
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return new Row(number, item, null);
+        }
+
+        private boolean readHeader() throws IOException {
+            List<String> header = readRecord();
+            if (header == null) {
+                return false;
+            }
+            columns = new int[header.size()];
+            for (int i = 0; i < columns.length; i++) {
+                String column = header.get(i).strip().toLowerCase(Locale.ROOT);
+                if (i == 0 && column.startsWith("\uFEFF")) {
+                    column = column.substring(1);
+                }
+                columns[i] = CSV_COLUMNS.indexOf(column);
+                if (columns[i] < 0) {
+                    throw new IllegalArgumentException("Неизвестный столбец CSV: " + header.get(i));
+                }
+            }
+            return true;
+        }
+
+        private List<String> readRecord() throws IOException {
+            if (ended) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean empty = true;
+            while (true) {
+                int c = reader.read();
+                if (c == -1) {
+                    ended = true;
+                    if (empty && fields.isEmpty()) {
+                        return null;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                }
+                empty = false;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            lineNumber++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    lineNumber++;
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+            }
+        }
+    }
+}
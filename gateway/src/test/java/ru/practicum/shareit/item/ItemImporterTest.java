@@ -0,0 +1,137 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+public class ItemImporterTest {
+    private static final MediaType NDJSON = MediaType.parseMediaType(ItemImporter.APPLICATION_NDJSON);
+    private static final MediaType CSV = MediaType.parseMediaType(ItemImporter.TEXT_CSV);
+
+    private final ItemClient itemClient = Mockito.mock(ItemClient.class);
+    private final List<List<ItemDto>> sent = new ArrayList<>();
+    private ItemImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        importer = new ItemImporter(itemClient, new ObjectMapper(), 2);
+        when(itemClient.importItems(eq(1L), any())).thenAnswer(invocation -> {
+            List<ItemDto> batch = List.copyOf(invocation.getArgument(1));
+            sent.add(batch);
+            ItemImportReportDto report = new ItemImportReportDto();
+            report.setReceived(batch.size());
+            report.setImported(batch.size());
+            return ResponseEntity.ok(report);
+        });
+    }
+
+    @Test
+    void importNdjson() throws IOException {
+        ItemImportReportDto report = importItems(NDJSON,
+                "{\"name\":\"Дрель\",\"description\":\"ударная\",\"available\":true}\n"
+                        + "\n"
+                        + "{\"name\":\"Пила\",\n"
+                        + "null\n"
+                        + "{\"name\":\"\",\"description\":\"ножовка\",\"available\":true}\n"
+                        + "{\"name\":\"Молоток\",\"description\":\"стальной\",\"available\":false,\"requestId\":7}\n");
+
+        assertEquals(5, report.getReceived(), "Количество строк не совпадает.");
+        assertEquals(2, report.getImported(), "Количество созданных вещей не совпадает.");
+        assertEquals(3, report.getFailed(), "Количество ошибок не совпадает.");
+        assertEquals(3L, report.getErrors().get(0).getRow(), "Номер строки не совпадает.");
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("Некорректный JSON: "),
+                "Ошибка не совпадает.");
+        assertEquals(List.of(new ItemImportErrorDto(4L, "Некорректный JSON: ожидался объект."),
+                        new ItemImportErrorDto(5L, "name: не должно быть пустым")),
+                report.getErrors().subList(1, 3), "Ошибки не совпадают.");
+        assertEquals(1, sent.size(), "Количество пакетов не совпадает.");
+        assertEquals(7L, sent.get(0).get(1).getRequestId(), "Id запроса не совпадает.");
+    }
+
+    @Test
+    void importCsv() throws IOException {
+        ItemImportReportDto report = importItems(CSV,
+                "\uFEFFavailable,Name,description,requestId\r\n"
+                        + "true,Дрель,\"ударная, с \"\"кейсом\"\"\nи свёрлами\",\r\n"
+                        + "TRUE,Пила\n"
+                        + "yes,Пила,ножовка,\n"
+                        + "false,Пила,ножовка,первый\n"
+                        + "\n"
+                        + "false,Молоток,стальной, 7\n");
+
+        assertEquals(5, report.getReceived(), "Количество строк не совпадает.");
+        assertEquals(2, report.getImported(), "Количество созданных вещей не совпадает.");
+        assertEquals(List.of(new ItemImportErrorDto(4L, "Ожидалось столбцов: 4, найдено: 2."),
+                        new ItemImportErrorDto(5L, "available: должно быть true или false"),
+                        new ItemImportErrorDto(6L, "requestId: должно быть числом")),
+                report.getErrors(), "Ошибки не совпадают.");
+        ItemDto drill = sent.get(0).get(0);
+        assertEquals("Дрель", drill.getName(), "Название не совпадает.");
+        assertEquals("ударная, с \"кейсом\"\nи свёрлами", drill.getDescription(), "Описание не совпадает.");
+        assertTrue(drill.getAvailable(), "Доступность не совпадает.");
+        assertNull(drill.getRequestId(), "Id запроса не совпадает.");
+        assertEquals(7L, sent.get(0).get(1).getRequestId(), "Id запроса не совпадает.");
+    }
+
+    @Test
+    void importCsvUnknownColumn() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> importItems(CSV, "name,description,price\nДрель,ударная,100\n"));
+        assertEquals("Неизвестный столбец CSV: price", ex.getMessage());
+    }
+
+    @Test
+    void importContinuesAfterRefusedBatch() throws IOException {
+        when(itemClient.importItems(eq(1L), any()))
+                .thenAnswer(invocation -> {
+                    ItemImportReportDto report = new ItemImportReportDto();
+                    report.setImported(2);
+                    report.getErrors().add(new ItemImportErrorDto(2L, "Запрос с id=7 не существует."));
+                    return ResponseEntity.ok(report);
+                })
+                .thenReturn(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body("{\"error\":\"Ошибка сервера.\"}".getBytes(StandardCharsets.UTF_8)))
+                .thenReturn(ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(new byte[0]));
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            body.append("{\"name\":\"Дрель\",\"description\":\"ударная\",\"available\":true}\n");
+        }
+
+        ItemImportReportDto report = importItems(NDJSON, body.toString());
+        assertEquals(5, report.getReceived(), "Количество строк не совпадает.");
+        assertEquals(2, report.getImported(), "Количество созданных вещей не совпадает.");
+        assertEquals(List.of(new ItemImportErrorDto(2L, "Запрос с id=7 не существует."),
+                        new ItemImportErrorDto(3L, "Ошибка сервера."),
+                        new ItemImportErrorDto(4L, "Ошибка сервера."),
+                        new ItemImportErrorDto(5L, "Сервер отклонил пакет, статус 502.")),
+                report.getErrors(), "Ошибки не совпадают.");
+    }
+
+    private ItemImportReportDto importItems(MediaType contentType, String body) throws IOException {
+        ResponseEntity<Object> response = importer.importItems(1L, contentType,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Статус ответа не совпадает.");
+        return (ItemImportReportDto) response.getBody();
+    }
+}
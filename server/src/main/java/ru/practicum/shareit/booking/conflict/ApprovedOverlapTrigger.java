@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking.conflict;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * H2 stand-in for the PostgreSQL exclusion constraint {@code ex_bookings_approved_overlap}: rejects an
+ * APPROVED booking overlapping another APPROVED booking of the same item. Locks the item row first so
+ * concurrent approvals of one item are checked one after another.
+ */
+public class ApprovedOverlapTrigger implements Trigger {
+    // column positions in the bookings table definition
+    private static final int BOOKING_ID = 0;
+    private static final int START_DATE = 1;
+    private static final int END_DATE = 2;
+    private static final int ITEM_ID = 3;
+    private static final int STATUS = 5;
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        if (newRow == null || !"APPROVED".equals(newRow[STATUS])) {
+            return;
+        }
+        try (PreparedStatement lock = conn.prepareStatement("select item_id from items where item_id = ? for update")) {
+            lock.setObject(1, newRow[ITEM_ID]);
+            lock.executeQuery().close();
+        }
+        try (PreparedStatement overlap = conn.prepareStatement("select booking_id from bookings " +
+                "where item_id = ? and status = 'APPROVED' and booking_id <> ? and start_date < ? and end_date > ?")) {
+            overlap.setObject(1, newRow[ITEM_ID]);
+            overlap.setObject(2, newRow[BOOKING_ID]);
+            overlap.setObject(3, newRow[END_DATE]);
+            overlap.setObject(4, newRow[START_DATE]);
+            try (ResultSet rs = overlap.executeQuery()) {
+                if (rs.next()) {
+                    throw new SQLException(String.format("booking %s violates exclusion constraint " +
+                            "\"ex_bookings_approved_overlap\": overlaps booking %d", newRow[BOOKING_ID], rs.getLong(1)),
+                            "23P01");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.booking.conflict;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.TransactionHooks;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingConflictIndex {
+    private static final int LOCK_STRIPES = 64;
+    private static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, IntervalTree> timelines = new ConcurrentHashMap<>();
+    private final Lock[] locks = createLocks();
+
+    public <T> T withItemLock(Long itemId, Supplier<T> action) {
+        Lock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public IntervalTree.Interval findConflict(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return withItemLock(itemId, () -> timeline(itemId).findAnyOverlap(start, end));
+    }
+
+    public List<IntervalTree.Interval> findBusyIntervals(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return withItemLock(itemId, () -> timeline(itemId).findOverlaps(from, to));
+    }
+
+    public void reserve(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        IntervalTree.Interval interval = toInterval(booking);
+        withItemLock(itemId, () -> {
+            timeline(itemId).insert(interval);
+            return null;
+        });
+        TransactionHooks.afterRollback(() -> remove(itemId, interval));
+    }
+
+    public void release(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        IntervalTree.Interval interval = toInterval(booking);
+        boolean removed = withItemLock(itemId, () -> timeline(itemId).remove(interval));
+        if (removed) {
+            TransactionHooks.afterRollback(() -> insert(itemId, interval));
+        }
+    }
+
+    /**
+     * Drops bookings that left the live table from the timelines already loaded, and the timelines they
+     * leave empty; timelines loaded later never see them.
+     */
+    public void forget(Collection<Booking> bookings) {
+        for (Booking booking : bookings) {
+            Long itemId = booking.getItem().getId();
+            IntervalTree.Interval interval = toInterval(booking);
+            boolean removed = withItemLock(itemId, () -> {
+                IntervalTree timeline = timelines.get(itemId);
+                if (timeline == null || !timeline.remove(interval)) {
+                    return false;
+                }
+                if (timeline.size() == 0) {
+                    timelines.remove(itemId);
+                }
+                return true;
+            });
+            if (removed) {
+                TransactionHooks.afterRollback(() -> evict(itemId));
+            }
+        }
+    }
+
+    public void evict(Long itemId) {
+        withItemLock(itemId, () -> timelines.remove(itemId));
+    }
+
+    private void insert(Long itemId, IntervalTree.Interval interval) {
+        withItemLock(itemId, () -> {
+            IntervalTree timeline = timelines.get(itemId);
+            if (timeline != null) {
+                timeline.insert(interval);
+            }
+            return null;
+        });
+    }
+
+    private void remove(Long itemId, IntervalTree.Interval interval) {
+        withItemLock(itemId, () -> {
+            IntervalTree timeline = timelines.get(itemId);
+            return timeline != null && timeline.remove(interval);
+        });
+    }
+
+    private IntervalTree timeline(Long itemId) {
+        IntervalTree timeline = timelines.get(itemId);
+        if (timeline == null) {
+            timeline = new IntervalTree();
+            for (Booking booking : bookingRepository.findAllByItemIdAndStatusIn(itemId, BLOCKING_STATUSES)) {
+                timeline.insert(toInterval(booking));
+            }
+            log.debug("loaded booking timeline for item with id={}, intervals={}", itemId, timeline.size());
+            timelines.put(itemId, timeline);
+        }
+        return timeline;
+    }
+
+    private Lock lockFor(Long itemId) {
+        return locks[Math.floorMod(itemId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static IntervalTree.Interval toInterval(Booking booking) {
+        return new IntervalTree.Interval(booking.getId(), booking.getStart(), booking.getEnd());
+    }
+
+    private static Lock[] createLocks() {
+        Lock[] stripes = new Lock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        return stripes;
+    }
+}
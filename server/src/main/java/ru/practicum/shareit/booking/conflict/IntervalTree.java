@@ -0,0 +1,197 @@
+package ru.practicum.shareit.booking.conflict;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AVL tree of booking intervals ordered by (start, id) and augmented with the maximum end
+ * of every subtree, so overlap lookups, inserts and removals all run in O(log n).
+ * Intervals are half-open: [start, end). Not thread-safe.
+ */
+public class IntervalTree {
+    private Node root;
+    private int size;
+
+    @Value
+    public static class Interval {
+        Long id;
+        LocalDateTime start;
+        LocalDateTime end;
+
+        boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            return start.isBefore(to) && end.isAfter(from);
+        }
+    }
+
+    private static final class Node {
+        private final Interval interval;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(Interval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.getEnd();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(Interval interval) {
+        root = insert(root, interval);
+    }
+
+    public boolean remove(Interval interval) {
+        int before = size;
+        root = remove(root, interval);
+        return size < before;
+    }
+
+    public Interval findAnyOverlap(LocalDateTime from, LocalDateTime to) {
+        Node node = root;
+        while (node != null && !node.interval.overlaps(from, to)) {
+            if (node.left != null && node.left.maxEnd.isAfter(from)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return node == null ? null : node.interval;
+    }
+
+    public List<Interval> findOverlaps(LocalDateTime from, LocalDateTime to) {
+        List<Interval> result = new ArrayList<>();
+        collectOverlaps(root, from, to, result);
+        return result;
+    }
+
+    private void collectOverlaps(Node node, LocalDateTime from, LocalDateTime to, List<Interval> result) {
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            return;
+        }
+        collectOverlaps(node.left, from, to, result);
+        if (!node.interval.getStart().isBefore(to)) {
+            return;
+        }
+        if (node.interval.overlaps(from, to)) {
+            result.add(node.interval);
+        }
+        collectOverlaps(node.right, from, to, result);
+    }
+
+    private Node insert(Node node, Interval interval) {
+        if (node == null) {
+            size++;
+            return new Node(interval);
+        }
+        int cmp = compare(interval, node.interval);
+        if (cmp < 0) {
+            node.left = insert(node.left, interval);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, interval);
+        } else {
+            return node;
+        }
+        return balance(node);
+    }
+
+    private Node remove(Node node, Interval interval) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(interval, node.interval);
+        if (cmp < 0) {
+            node.left = remove(node.left, interval);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, interval);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node replacement = new Node(successor.interval);
+            replacement.right = removeMin(node.right);
+            replacement.left = node.left;
+            return balance(replacement);
+        }
+        return balance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(Node node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        LocalDateTime maxEnd = node.interval.getEnd();
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int compare(Interval first, Interval second) {
+        int cmp = first.getStart().compareTo(second.getStart());
+        return cmp != 0 ? cmp : first.getId().compareTo(second.getId());
+    }
+}
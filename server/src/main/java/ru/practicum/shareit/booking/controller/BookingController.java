@@ -2,9 +2,14 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.util.List;
@@ -15,6 +20,7 @@ import static ru.practicum.shareit.item.controller.ItemController.USER_HEADER;
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final BookingService bookingService;
 
     @PostMapping
@@ -31,6 +37,13 @@ public class BookingController {
         return bookingService.approveBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<BookingApprovalResultDto> approveBookings(@RequestHeader(USER_HEADER) Long userId,
+                                                          @RequestBody List<BookingApprovalDto> approvals) {
+        return bookingService.approveBookings(userId, approvals);
+    }
+
     @GetMapping("/{bookingId}")
     @ResponseStatus(HttpStatus.OK)
     public BookingResponseDto getBooking(@RequestHeader(USER_HEADER) Long userId, @PathVariable Long bookingId) {
@@ -54,4 +67,40 @@ public class BookingController {
                                                        @RequestParam(defaultValue = "10") Integer size) {
         return bookingService.getBookingsByOwner(userId, state, from, size);
     }
+
+    @GetMapping("/summary")
+    @ResponseStatus(HttpStatus.OK)
+    public BookingSummaryDto getBookingsSummaryByUser(@RequestHeader(USER_HEADER) Long userId) {
+        return bookingService.getBookingsSummaryByUser(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    @ResponseStatus(HttpStatus.OK)
+    public BookingSummaryDto getBookingsSummaryByOwner(@RequestHeader(USER_HEADER) Long userId) {
+        return bookingService.getBookingsSummaryByOwner(userId);
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByUser(@RequestHeader(USER_HEADER) Long userId,
+                                                                      @RequestParam(defaultValue = "ALL", name = "state") String state,
+                                                                      @RequestParam String cursor,
+                                                                      @RequestParam(defaultValue = "10") Integer size) {
+        return toResponse(bookingService.getBookingsByUser(userId, state, cursor, size));
+    }
+
+    @GetMapping(path = "/owner", params = "cursor")
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByOwner(@RequestHeader(USER_HEADER) Long userId,
+                                                                       @RequestParam(defaultValue = "ALL", name = "state") String state,
+                                                                       @RequestParam String cursor,
+                                                                       @RequestParam(defaultValue = "10") Integer size) {
+        return toResponse(bookingService.getBookingsByOwner(userId, state, cursor, size));
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> toResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
+    }
 }
@@ -20,4 +20,16 @@ public class BookingResponseDto {
     UserDto booker;
     ItemDto item;
     BookingStatus status;
+
+    public BookingResponseDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                              Long bookerId, String bookerName, String bookerEmail,
+                              Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                              Long itemRequestId, Integer itemCommentCount) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.status = status;
+        this.booker = new UserDto(bookerId, bookerName, bookerEmail);
+        this.item = new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemRequestId, itemCommentCount);
+    }
 }
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingSummaryDto {
+    long all;
+    long waiting;
+    long current;
+    long future;
+    long past;
+    long rejected;
+    long expired;
+
+    public BookingSummaryDto(Long all, Long waiting, Long current, Long future, Long past, Long rejected,
+                             Long expired) {
+        this.all = valueOf(all);
+        this.waiting = valueOf(waiting);
+        this.current = valueOf(current);
+        this.future = valueOf(future);
+        this.past = valueOf(past);
+        this.rejected = valueOf(rejected);
+        this.expired = valueOf(expired);
+    }
+
+    private static long valueOf(Long count) {
+        return count == null ? 0 : count;
+    }
+}
@@ -8,8 +8,9 @@ import org.mapstruct.factory.Mappers;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingForItemDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -24,7 +25,10 @@ public interface BookingMapper {
     BookingResponseDto bookingToBookingResponseDto(Booking booking);
 
     @Named("mapItemDto")
-    ItemBookingDto mapItemDto(Item item);
+    @Mapping(target = "requestId", source = "request.id")
+    ItemDto mapItemDto(Item item);
+
+    Booking archivedBookingToBooking(ArchivedBooking archivedBooking);
 
     @Mapping(target = "bookerId", source = "booker.id")
     BookingForItemDto bookingToBookingForItemDto(Booking booking);
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Data;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Finished booking moved out of the live {@code bookings} table by the archiver. Rows keep their
+ * original ids and are never modified afterwards.
+ */
+@Entity
+@Table(name = "bookings_archive")
+@Data
+public class ArchivedBooking {
+    @Id
+    @Column(name = "booking_id")
+    private Long id;
+    @Column(name = "start_date")
+    private LocalDateTime start;
+    @Column(name = "end_date")
+    private LocalDateTime end;
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "item_id")
+    private Item item;
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "booker_id")
+    private User booker;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private BookingStatus status;
+    @Column(name = "version")
+    private Long version;
+}
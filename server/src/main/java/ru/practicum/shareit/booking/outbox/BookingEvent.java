@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.outbox;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "booking_outbox")
+@Data
+public class BookingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_outbox_seq")
+    @SequenceGenerator(name = "booking_outbox_seq", sequenceName = "booking_outbox_seq", allocationSize = 50)
+    @Column(name = "event_id")
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type")
+    private BookingEventType type;
+    @Column(name = "booking_id")
+    private Long bookingId;
+    @Column(name = "item_id")
+    private Long itemId;
+    @Column(name = "booker_id")
+    private Long bookerId;
+    @Column(name = "owner_id")
+    private Long ownerId;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private BookingStatus status;
+    @Column(name = "start_date")
+    private LocalDateTime start;
+    @Column(name = "end_date")
+    private LocalDateTime end;
+    @Column(name = "created")
+    private LocalDateTime created;
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Column(name = "claimed_by")
+    private String claimedBy;
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+}
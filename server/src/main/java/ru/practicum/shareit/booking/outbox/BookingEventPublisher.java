@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Records booking changes in the outbox. Must run inside the transaction that changes the booking,
+ * so an event is stored if and only if the change commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingEventPublisher {
+    private final BookingEventRepository bookingEventRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(Booking booking, BookingStatus status) {
+        bookingEventRepository.save(toEvent(booking, status, LocalDateTime.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(Collection<Booking> bookings, BookingStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        bookingEventRepository.saveAll(bookings.stream()
+                .map(booking -> toEvent(booking, status, now))
+                .collect(Collectors.toList()));
+    }
+
+    private static BookingEvent toEvent(Booking booking, BookingStatus status, LocalDateTime created) {
+        BookingEvent event = new BookingEvent();
+        event.setType(status == BookingStatus.WAITING ? BookingEventType.CREATED : BookingEventType.STATUS_CHANGED);
+        event.setBookingId(booking.getId());
+        event.setItemId(booking.getItem().getId());
+        event.setBookerId(booking.getBooker().getId());
+        event.setOwnerId(booking.getItem().getOwner().getId());
+        event.setStatus(status);
+        event.setStart(booking.getStart());
+        event.setEnd(booking.getEnd());
+        event.setCreated(created);
+        return event;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+    String UNCLAIMED = "(e.claimedUntil is null or e.claimedUntil < :now)";
+
+    @Query("select e.id from BookingEvent e where " + UNCLAIMED + " order by e.id")
+    List<Long> findUnclaimedIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Stamps the events that are still unclaimed with the token until {@code until}. The condition is
+     * rechecked on rows another relay updated concurrently, so two relays never hold the same event.
+     */
+    @Modifying
+    @Query("update BookingEvent e set e.claimedBy = :token, e.claimedUntil = :until " +
+            "where e.id in :ids and " + UNCLAIMED)
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("now") LocalDateTime now,
+              @Param("until") LocalDateTime until);
+
+    @Query("select e from BookingEvent e where e.claimedBy = :token order by e.id")
+    List<BookingEvent> findClaimed(@Param("token") String token);
+
+    @Modifying
+    @Query("delete from BookingEvent e where e.claimedBy = :token")
+    int deleteClaimed(@Param("token") String token);
+
+    @Modifying
+    @Query("update BookingEvent e set e.claimedBy = null, e.claimedUntil = null where e.claimedBy = :token")
+    int releaseClaimed(@Param("token") String token);
+
+    @Query("select min(e.created) from BookingEvent e")
+    LocalDateTime findOldestCreated();
+}
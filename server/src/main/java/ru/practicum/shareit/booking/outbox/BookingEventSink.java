@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of relayed booking events. Delivery is at-least-once: a batch is redelivered to every
+ * sink if any of them throws, so implementations must tolerate duplicates (events carry a unique id).
+ */
+public interface BookingEventSink {
+    String getName();
+
+    void deliver(List<BookingEvent> events);
+}
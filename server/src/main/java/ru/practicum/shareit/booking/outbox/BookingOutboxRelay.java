@@ -0,0 +1,150 @@
+package ru.practicum.shareit.booking.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the booking outbox and hands each batch to every sink. A batch is claimed by stamping its rows
+ * with a per-batch token and a lease, delivered outside any transaction and then deleted, so relays on
+ * several instances never deliver the same batch at once. A relay that crashes or outlives its lease
+ * leaves the rows to be claimed again, so delivery is at-least-once and sinks must tolerate duplicates.
+ * Events are claimed in id order, which is not commit order: ids come from blocks preallocated per
+ * instance, so consumers must not rely on the order of events either. Only one batch is in flight per
+ * instance and a failing sink pauses the relay with exponential backoff: a slow consumer slows the drain
+ * down while events keep accumulating in the table, never in memory. The backlog and lag gauges query the
+ * table on their own, slower schedule rather than on every poll; in between, delivered batches are only
+ * subtracted from the backlog.
+ */
+@Component
+@Slf4j
+public class BookingOutboxRelay {
+    private final BookingEventRepository bookingEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<BookingEventSink> sinks;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration pollInterval;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter delivered;
+    private final Counter failures;
+    private final Timer batchTimer;
+    private int consecutiveFailures;
+    private long retryAt;
+
+    public BookingOutboxRelay(BookingEventRepository bookingEventRepository,
+                              TransactionTemplate transactionTemplate,
+                              List<BookingEventSink> sinks,
+                              MeterRegistry meterRegistry,
+                              @Value("${shareit.outbox.batch-size:100}") int batchSize,
+                              @Value("${shareit.outbox.max-batches-per-run:10}") int maxBatchesPerRun,
+                              @Value("${shareit.outbox.poll-interval:PT1S}") Duration pollInterval,
+                              @Value("${shareit.outbox.max-backoff:PT1M}") Duration maxBackoff,
+                              @Value("${shareit.outbox.lease:PT1M}") Duration lease) {
+        this.bookingEventRepository = bookingEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.sinks = sinks;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pollInterval = pollInterval;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.delivered = Counter.builder("shareit.outbox.delivered")
+                .description("Booking events delivered to all sinks")
+                .register(meterRegistry);
+        this.failures = Counter.builder("shareit.outbox.failures")
+                .description("Batches rejected by a sink")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("shareit.outbox.batch")
+                .description("Time to deliver one batch to all sinks")
+                .register(meterRegistry);
+        Gauge.builder("shareit.outbox.backlog", backlog, AtomicLong::get)
+                .description("Booking events waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("shareit.outbox.lag", lagMillis, value -> value.get() / 1000.0)
+                .description("Age of the oldest undelivered booking event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.poll-interval:PT1S}")
+    public void relayScheduled() {
+        if (System.currentTimeMillis() < retryAt) {
+            return;
+        }
+        relay();
+    }
+
+    public synchronized int relay() {
+        int total = 0;
+        for (int batches = 0; batches < maxBatchesPerRun; batches++) {
+            String token = UUID.randomUUID().toString();
+            LocalDateTime now = LocalDateTime.now();
+            List<BookingEvent> batch = transactionTemplate.execute(status -> {
+                List<Long> ids = bookingEventRepository.findUnclaimedIds(now, PageRequest.of(0, batchSize));
+                if (ids.isEmpty() || bookingEventRepository.claim(ids, token, now, now.plus(lease)) == 0) {
+                    return List.of();
+                }
+                return bookingEventRepository.findClaimed(token);
+            });
+            if (batch.isEmpty()) {
+                break;
+            }
+            if (!deliver(batch)) {
+                transactionTemplate.execute(status -> bookingEventRepository.releaseClaimed(token));
+                break;
+            }
+            transactionTemplate.execute(status -> bookingEventRepository.deleteClaimed(token));
+            delivered.increment(batch.size());
+            backlog.updateAndGet(value -> Math.max(0, value - batch.size()));
+            total += batch.size();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private boolean deliver(List<BookingEvent> batch) {
+        for (BookingEventSink sink : sinks) {
+            try {
+                batchTimer.record(() -> sink.deliver(batch));
+            } catch (RuntimeException e) {
+                failures.increment();
+                consecutiveFailures++;
+                long backoff = Math.min(pollInterval.toMillis() << Math.min(consecutiveFailures, 20),
+                        maxBackoff.toMillis());
+                retryAt = System.currentTimeMillis() + backoff;
+                log.warn("sink {} rejected {} booking events, retrying in {} ms", sink.getName(), batch.size(),
+                        backoff, e);
+                return false;
+            }
+        }
+        consecutiveFailures = 0;
+        retryAt = 0;
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.backlog-refresh-interval:PT30S}")
+    public void refreshBacklog() {
+        backlog.set(bookingEventRepository.count());
+        LocalDateTime oldest = bookingEventRepository.findOldestCreated();
+        lagMillis.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis());
+    }
+}
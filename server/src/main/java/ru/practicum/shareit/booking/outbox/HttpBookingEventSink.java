@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * POSTs every batch as a JSON array to a callback URL; any non-2xx answer fails the batch.
+ */
+@Component
+@ConditionalOnProperty("shareit.outbox.sink.http.url")
+public class HttpBookingEventSink implements BookingEventSink {
+    private final RestTemplate restTemplate;
+    private final String url;
+
+    public HttpBookingEventSink(RestTemplateBuilder builder,
+                                @Value("${shareit.outbox.sink.http.url}") String url,
+                                @Value("${shareit.outbox.sink.http.timeout:PT5S}") Duration timeout) {
+        this.restTemplate = builder
+                .setConnectTimeout(timeout)
+                .setReadTimeout(timeout)
+                .build();
+        this.url = url;
+    }
+
+    @Override
+    public String getName() {
+        return "http";
+    }
+
+    @Override
+    public void deliver(List<BookingEvent> events) {
+        restTemplate.postForEntity(url, events, Void.class);
+    }
+}
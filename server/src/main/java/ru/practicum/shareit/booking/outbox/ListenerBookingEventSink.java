@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Hands events to in-process {@code @EventListener}s. Listeners run on the relay thread, so a slow
+ * listener slows the relay down instead of piling events up in memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class ListenerBookingEventSink implements BookingEventSink {
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public String getName() {
+        return "listener";
+    }
+
+    @Override
+    public void deliver(List<BookingEvent> events) {
+        events.forEach(applicationEventPublisher::publishEvent);
+    }
+}
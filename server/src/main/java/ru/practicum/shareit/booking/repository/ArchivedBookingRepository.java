@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+    String RESPONSE_SELECT = "select new ru.practicum.shareit.booking.dto.BookingResponseDto(" +
+            "b.id, b.start, b.end, b.status, bk.id, bk.name, bk.email, " +
+            "i.id, i.name, i.description, i.available, r.id, i.commentCount) " +
+            "from ArchivedBooking b join b.booker bk join b.item i left join i.request r ";
+
+    String SUMMARY_SELECT = "select new ru.practicum.shareit.booking.dto.BookingSummaryDto(count(b), " +
+            "sum(case when b.status = 'WAITING' then 1 else 0 end), " +
+            "sum(case when b.start < :now and b.end > :now then 1 else 0 end), " +
+            "sum(case when b.start > :now then 1 else 0 end), " +
+            "sum(case when b.end < :now then 1 else 0 end), " +
+            "sum(case when b.status = 'REJECTED' then 1 else 0 end), " +
+            "sum(case when b.status = 'EXPIRED' then 1 else 0 end)) " +
+            "from ArchivedBooking b ";
+
+    @Query(RESPONSE_SELECT + "where b.booker.id = :userId order by b.start desc, b.id desc")
+    List<BookingResponseDto> findAllByBookerId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "where b.booker.id = :userId and b.status = :status order by b.start desc, b.id desc")
+    List<BookingResponseDto> findAllByBookerIdAndStatus(@Param("userId") Long userId, @Param("status") BookingStatus status, Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "where i.owner.id = :userId order by b.start desc, b.id desc")
+    List<BookingResponseDto> findAllByOwnerId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "where i.owner.id = :userId and b.status = :status order by b.start desc, b.id desc")
+    List<BookingResponseDto> findAllByOwnerIdAndStatus(@Param("userId") Long userId, @Param("status") BookingStatus status, Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "where b.booker.id = :userId and b.status in :statuses " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingResponseDto> findBookerPageAfter(@Param("userId") Long userId,
+                                                 @Param("statuses") Collection<BookingStatus> statuses,
+                                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                                 @Param("cursorId") Long cursorId,
+                                                 Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "where i.owner.id = :userId and b.status in :statuses " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingResponseDto> findOwnerPageAfter(@Param("userId") Long userId,
+                                                @Param("statuses") Collection<BookingStatus> statuses,
+                                                @Param("cursorStart") LocalDateTime cursorStart,
+                                                @Param("cursorId") Long cursorId,
+                                                Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where b.booker.id = :userId")
+    BookingSummaryDto getBookerSummary(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Query(SUMMARY_SELECT + "where b.item.owner.id = :userId")
+    BookingSummaryDto getOwnerSummary(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Query("select b from ArchivedBooking b where b.item.id in :itemIds and b.status = 'APPROVED' " +
+            "and b.end = (select max(lb.end) from ArchivedBooking lb where lb.item.id = b.item.id " +
+            "and lb.status = 'APPROVED')")
+    List<ArchivedBooking> findLastBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds);
+
+    boolean existsByBookerIdAndItemId(Long bookerId, Long itemId);
+
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<ArchivedBooking> findById(Long id);
+}
@@ -1,49 +1,133 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerIdOrderByStartDesc(Long userId, Pageable pageable);
+    String RESPONSE_SELECT = "select new ru.practicum.shareit.booking.dto.BookingResponseDto(" +
+            "b.id, b.start, b.end, b.status, bk.id, bk.name, bk.email, " +
+            "i.id, i.name, i.description, i.available, r.id, i.commentCount) " +
+            "from Booking b join b.booker bk join b.item i left join i.request r ";
+    String APPROVED_OVERLAP_CONSTRAINT = "ex_bookings_approved_overlap";
+    String SUMMARY_SELECT = "select new ru.practicum.shareit.booking.dto.BookingSummaryDto(count(b), " +
+            "sum(case when b.status = 'WAITING' then 1 else 0 end), " +
+            "sum(case when b.start < :now and b.end > :now then 1 else 0 end), " +
+            "sum(case when b.start > :now then 1 else 0 end), " +
+            "sum(case when b.end < :now then 1 else 0 end), " +
+            "sum(case when b.status = 'REJECTED' then 1 else 0 end), " +
+            "sum(case when b.status = 'EXPIRED' then 1 else 0 end)) " +
+            "from Booking b ";
 
-    List<Booking> findAllByBookerIdAndEndIsBeforeOrderByStartDesc(Long userId, LocalDateTime now, Pageable pageable);
+    @Query(RESPONSE_SELECT + "where b.booker.id = :userId order by b.start desc, b.id desc")
+    List<BookingResponseDto> findAllByBookerId(@Param("userId") Long userId, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStartIsAfterOrderByStartDesc(Long userId, LocalDateTime now, Pageable pageable);
+    @Query(RESPONSE_SELECT + "where b.booker.id = :userId and b.end < :now order by b.start desc, b.id desc")
+    List<BookingResponseDto> findAllByBookerIdAndEndIsBefore(@Param("userId") Long userId, @Param("now") LocalDateTime now, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStatus(Long userId, BookingStatus waiting, Pageable pageable);
+    @Query(RESPONSE_SELECT + "where b.booker.id = :userId and b.start > :now order by b.start desc")
+    List<BookingResponseDto> findAllByBookerIdAndStartIsAfter(@Param("userId") Long userId, @Param("now") LocalDateTime now, Pageable pageable);
 
-    @Query("select b from Booking b where b.booker.id = :userId and b.start < :now and b.end > :now order by b.start DESC")
-    List<Booking> findAllByBookerCurrentDate(@Param("userId") Long userId, @Param("now") LocalDateTime now, Pageable pageable);
+    @Query(RESPONSE_SELECT + "where b.booker.id = :userId and b.status = :status order by b.start desc, b.id desc")
+    List<BookingResponseDto> findAllByBookerIdAndStatus(@Param("userId") Long userId, @Param("status") BookingStatus status, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id = :userId order by b.start DESC")
-    List<Booking> findAllByOwnerId(@Param("userId") Long userId, Pageable pageable);
+    @Query(RESPONSE_SELECT + "where b.booker.id = :userId and b.start < :now and b.end > :now order by b.start desc")
+    List<BookingResponseDto> findAllByBookerCurrentDate(@Param("userId") Long userId, @Param("now") LocalDateTime now, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id = :userId and b.end < :now order by b.start DESC")
-    List<Booking> findAllByOwnerIdAndEndIsBefore(@Param("userId") Long userId, @Param("now") LocalDateTime now, Pageable pageable);
+    @Query(RESPONSE_SELECT + "where i.owner.id = :userId order by b.start desc, b.id desc")
+    List<BookingResponseDto> findAllByOwnerId(@Param("userId") Long userId, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id = :userId and b.start > :now order by b.start DESC")
-    List<Booking> findAllByOwnerIdAndStartIsAfter(@Param("userId") Long userId, @Param("now") LocalDateTime now, Pageable pageable);
+    @Query(RESPONSE_SELECT + "where i.owner.id = :userId and b.end < :now order by b.start desc, b.id desc")
+    List<BookingResponseDto> findAllByOwnerIdAndEndIsBefore(@Param("userId") Long userId, @Param("now") LocalDateTime now, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id = :userId and b.start < :now and b.end > :now order by b.start DESC")
-    List<Booking> findAllByOwnerCurrentDate(@Param("userId") Long userId, @Param("now") LocalDateTime now, Pageable pageable);
+    @Query(RESPONSE_SELECT + "where i.owner.id = :userId and b.start > :now order by b.start desc")
+    List<BookingResponseDto> findAllByOwnerIdAndStartIsAfter(@Param("userId") Long userId, @Param("now") LocalDateTime now, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id = :userId and b.status = :status order by b.start DESC")
-    List<Booking> findAllByOwnerIdAndStatus(@Param("userId") Long userId, @Param("status") BookingStatus waiting, Pageable pageable);
+    @Query(RESPONSE_SELECT + "where i.owner.id = :userId and b.start < :now and b.end > :now order by b.start desc")
+    List<BookingResponseDto> findAllByOwnerCurrentDate(@Param("userId") Long userId, @Param("now") LocalDateTime now, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.id = :itemId and b.start < :start and b.status = 'APPROVED' order by b.end DESC")
-    List<Booking> findItemLastBookings(@Param("itemId") Long itemId, @Param("start") LocalDateTime start);
+    @Query(RESPONSE_SELECT + "where i.owner.id = :userId and b.status = :status order by b.start desc, b.id desc")
+    List<BookingResponseDto> findAllByOwnerIdAndStatus(@Param("userId") Long userId, @Param("status") BookingStatus status, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.id = :itemId and b.start > :start and b.status = 'APPROVED' order by b.start")
-    List<Booking> findItemNextBookings(@Param("itemId") Long itemId, @Param("start") LocalDateTime start);
+    @Query("select b from Booking b where b.item.id in :itemIds and b.status = 'APPROVED' and b.start < :now " +
+            "and b.end = (select max(lb.end) from Booking lb where lb.item.id = b.item.id " +
+            "and lb.status = 'APPROVED' and lb.start < :now)")
+    List<Booking> findLastBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Query("select b from Booking b where b.item.id in :itemIds and b.status = 'APPROVED' and b.start > :now " +
+            "and b.start = (select min(nb.start) from Booking nb where nb.item.id = b.item.id " +
+            "and nb.status = 'APPROVED' and nb.start > :now)")
+    List<Booking> findNextBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Query(RESPONSE_SELECT + "where b.booker.id = :userId and b.status in :statuses " +
+            "and b.start > :startAfter and b.start < :startBefore and b.end > :endAfter and b.end < :endBefore " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingResponseDto> findBookerPageAfter(@Param("userId") Long userId,
+                                                 @Param("statuses") Collection<BookingStatus> statuses,
+                                                 @Param("startAfter") LocalDateTime startAfter,
+                                                 @Param("startBefore") LocalDateTime startBefore,
+                                                 @Param("endAfter") LocalDateTime endAfter,
+                                                 @Param("endBefore") LocalDateTime endBefore,
+                                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                                 @Param("cursorId") Long cursorId,
+                                                 Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "where i.owner.id = :userId and b.status in :statuses " +
+            "and b.start > :startAfter and b.start < :startBefore and b.end > :endAfter and b.end < :endBefore " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingResponseDto> findOwnerPageAfter(@Param("userId") Long userId,
+                                                @Param("statuses") Collection<BookingStatus> statuses,
+                                                @Param("startAfter") LocalDateTime startAfter,
+                                                @Param("startBefore") LocalDateTime startBefore,
+                                                @Param("endAfter") LocalDateTime endAfter,
+                                                @Param("endBefore") LocalDateTime endBefore,
+                                                @Param("cursorStart") LocalDateTime cursorStart,
+                                                @Param("cursorId") Long cursorId,
+                                                Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
+
+    @Query(SUMMARY_SELECT + "where b.booker.id = :userId")
+    BookingSummaryDto getBookerSummary(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Query(SUMMARY_SELECT + "where b.item.owner.id = :userId")
+    BookingSummaryDto getOwnerSummary(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Query("select b from Booking b join fetch b.item where b.id in :ids")
+    List<Booking> findAllWithItemByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select b from Booking b join fetch b.item where b.status = 'WAITING' and b.start < :now order by b.id")
+    List<Booking> findExpiredWaiting(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 where b.id in :ids and b.status = 'WAITING'")
+    int updateWaitingStatus(@Param("ids") Collection<Long> ids, @Param("status") BookingStatus status);
+
+    List<Booking> findAllByItemIdAndStatusIn(Long itemId, Collection<BookingStatus> statuses);
 
     Optional<Booking> findFirstByBookerAndItemIdAndEndBefore(User booker, Long itemId, LocalDateTime date);
+
+    @Query("select b from Booking b where b.end < :threshold order by b.id")
+    List<Booking> findAllByEndBefore(@Param("threshold") LocalDateTime threshold, Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Booking b where b.id in :ids")
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.conflict.BookingConflictIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Moves bookings that ended more than the configured horizon ago from {@code bookings} into
+ * {@code bookings_archive}, one chunk per transaction. Bookings of every status are moved: the listings
+ * and summaries merge the archive back for each state, and archived bookings always ended in the past.
+ */
+@Component
+@Slf4j
+public class BookingArchiver {
+    private static final String BOOKING_COLUMNS = "booking_id, start_date, end_date, item_id, booker_id, status, version";
+    private static final String COPY_TO_ARCHIVE = "insert into bookings_archive (" + BOOKING_COLUMNS + ") " +
+            "select " + BOOKING_COLUMNS + " from bookings where booking_id in (:ids)";
+
+    private final BookingRepository bookingRepository;
+    private final BookingConflictIndex bookingConflictIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Duration horizon;
+    private final int chunkSize;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           BookingConflictIndex bookingConflictIndex,
+                           TransactionTemplate transactionTemplate,
+                           EntityManager entityManager,
+                           @Value("${shareit.booking.archive.horizon:P365D}") Duration horizon,
+                           @Value("${shareit.booking.archive.chunk-size:500}") int chunkSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingConflictIndex = bookingConflictIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.horizon = horizon;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking.archive.interval:PT1H}",
+            fixedDelayString = "${shareit.booking.archive.interval:PT1H}")
+    public void archiveFinishedBookings() {
+        archive(LocalDateTime.now().minus(horizon));
+    }
+
+    public int archive(LocalDateTime threshold) {
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> moveChunk(threshold));
+            total += moved;
+        } while (moved == chunkSize);
+        log.info("archived {} bookings ended before {}", total, threshold);
+        return total;
+    }
+
+    private int moveChunk(LocalDateTime threshold) {
+        List<Booking> bookings = bookingRepository.findAllByEndBefore(threshold, PageRequest.of(0, chunkSize));
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = bookings.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+        entityManager.createNativeQuery(COPY_TO_ARCHIVE)
+                .setParameter("ids", ids)
+                .executeUpdate();
+        bookingRepository.deleteAllByIds(ids);
+        bookingConflictIndex.forget(bookings);
+        return ids.size();
+    }
+}
@@ -0,0 +1,180 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.ItemBookingPointers;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemDetailCache;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Last and next APPROVED bookings of items. Reads follow the denormalized {@code items.last_booking_id}
+ * and {@code items.next_booking_id} pointers; {@link #refreshPointers} recomputes them from the
+ * booking tables and is called on approval, by the sweeper and by the reconciler.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingDatesResolver {
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemDetailCache detailCache;
+
+    public Map<Long, Booking> findLastBookings(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        Map<Long, Booking> lastBookings = firstByItem(bookingRepository.findLastBookingsByItemIds(itemIds, now));
+        List<Long> archivedItemIds = itemIds.stream()
+                .filter(itemId -> !lastBookings.containsKey(itemId))
+                .collect(Collectors.toList());
+        if (!archivedItemIds.isEmpty()) {
+            List<Booking> archivedBookings = archivedBookingRepository.findLastBookingsByItemIds(archivedItemIds).stream()
+                    .map(BookingMapper.INSTANCE::archivedBookingToBooking)
+                    .collect(Collectors.toList());
+            lastBookings.putAll(firstByItem(archivedBookings));
+        }
+        return lastBookings;
+    }
+
+    public Map<Long, Booking> findNextBookings(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return firstByItem(bookingRepository.findNextBookingsByItemIds(itemIds, now));
+    }
+
+    /**
+     * Recomputes the pointers of the given items and writes those that differ. The item rows are locked
+     * before the bookings are read, so concurrent approvals of one item refresh its pointers one after
+     * another and the later one sees the earlier one's booking.
+     *
+     * @return number of items whose pointers changed
+     */
+    public int refreshPointers(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        List<ItemBookingPointers> lockedPointers = itemRepository.findPointersForUpdateByIdInOrderById(itemIds);
+        Map<Long, Booking> lastBookings = findLastBookings(itemIds, now);
+        Map<Long, Booking> nextBookings = findNextBookings(itemIds, now);
+        List<Long> changed = new ArrayList<>();
+        for (ItemBookingPointers pointers : drifted(lockedPointers, lastBookings, nextBookings)) {
+            itemRepository.updateBookingPointers(pointers.getId(), idOf(lastBookings.get(pointers.getId())),
+                    idOf(nextBookings.get(pointers.getId())));
+            changed.add(pointers.getId());
+        }
+        if (!changed.isEmpty()) {
+            detailCache.evictBookings(changed);
+        }
+        return changed.size();
+    }
+
+    /**
+     * Compares the stored pointers of the given items with the booking tables without locking anything,
+     * so that a walk over every item only has to {@link #refreshPointers lock and refresh} the ones that
+     * drifted.
+     *
+     * @return ids of the items whose pointers are out of date
+     */
+    public List<Long> findDrifted(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        return drifted(itemRepository.findPointersByIdIn(itemIds), findLastBookings(itemIds, now),
+                findNextBookings(itemIds, now)).stream()
+                .map(ItemBookingPointers::getId)
+                .collect(Collectors.toList());
+    }
+
+    public void setBookingDates(Collection<? extends ItemBookingDto> items) {
+        List<Long> itemIds = items.stream()
+                .map(ItemBookingDto::getId)
+                .collect(Collectors.toList());
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        Map<Long, ItemBookingPointers> pointers = itemRepository.findPointersByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingPointers::getId, itemPointers -> itemPointers));
+        Set<Long> bookingIds = new HashSet<>();
+        pointers.values().forEach(itemPointers -> {
+            bookingIds.add(itemPointers.getLastBookingId());
+            bookingIds.add(itemPointers.getNextBookingId());
+        });
+        bookingIds.remove(null);
+        Map<Long, Booking> bookings = findBookings(bookingIds);
+        for (ItemBookingDto item : items) {
+            ItemBookingPointers itemPointers = pointers.get(item.getId());
+            if (itemPointers == null) {
+                continue;
+            }
+            Booking last = bookings.get(itemPointers.getLastBookingId());
+            if (last != null) {
+                item.setLastBooking(BookingMapper.INSTANCE.bookingToBookingForItemDto(last));
+            }
+            Booking next = bookings.get(itemPointers.getNextBookingId());
+            if (next != null) {
+                item.setNextBooking(BookingMapper.INSTANCE.bookingToBookingForItemDto(next));
+            }
+        }
+    }
+
+    private Map<Long, Booking> findBookings(Set<Long> bookingIds) {
+        Map<Long, Booking> bookings = new HashMap<>();
+        if (bookingIds.isEmpty()) {
+            return bookings;
+        }
+        bookingRepository.findAllById(bookingIds).forEach(booking -> bookings.put(booking.getId(), booking));
+        List<Long> archivedIds = bookingIds.stream()
+                .filter(bookingId -> !bookings.containsKey(bookingId))
+                .collect(Collectors.toList());
+        if (!archivedIds.isEmpty()) {
+            archivedBookingRepository.findAllById(archivedIds).forEach(archivedBooking ->
+                    bookings.put(archivedBooking.getId(), BookingMapper.INSTANCE.archivedBookingToBooking(archivedBooking)));
+        }
+        return bookings;
+    }
+
+    private Map<Long, Booking> firstByItem(List<Booking> bookings) {
+        Map<Long, Booking> result = new HashMap<>();
+        for (Booking booking : bookings) {
+            result.merge(booking.getItem().getId(), booking,
+                    (current, candidate) -> candidate.getId() < current.getId() ? candidate : current);
+        }
+        return result;
+    }
+
+    private static List<ItemBookingPointers> drifted(List<ItemBookingPointers> pointers,
+                                                     Map<Long, Booking> lastBookings,
+                                                     Map<Long, Booking> nextBookings) {
+        List<ItemBookingPointers> drifted = new ArrayList<>();
+        for (ItemBookingPointers itemPointers : pointers) {
+            Long lastBookingId = idOf(lastBookings.get(itemPointers.getId()));
+            Long nextBookingId = idOf(nextBookings.get(itemPointers.getId()));
+            if (!Objects.equals(lastBookingId, itemPointers.getLastBookingId())
+                    || !Objects.equals(nextBookingId, itemPointers.getNextBookingId())) {
+                drifted.add(itemPointers);
+            }
+        }
+        return drifted;
+    }
+
+    private static Long idOf(Booking booking) {
+        return booking == null ? null : booking.getId();
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.conflict.BookingConflictIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.outbox.BookingEventPublisher;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.service.ItemAvailabilityCache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Moves WAITING bookings whose start has passed to EXPIRED. Each chunk is one short transaction with
+ * a single set-based UPDATE, and the job pauses between chunks so row locks are never held for long.
+ */
+@Component
+@Slf4j
+public class BookingExpirer {
+    private final BookingRepository bookingRepository;
+    private final BookingConflictIndex bookingConflictIndex;
+    private final ItemAvailabilityCache availabilityCache;
+    private final BookingSummaryCache summaryCache;
+    private final BookingEventPublisher bookingEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration pause;
+    private final Counter expiredRows;
+    private final Timer runTimer;
+
+    public BookingExpirer(BookingRepository bookingRepository,
+                          BookingConflictIndex bookingConflictIndex,
+                          ItemAvailabilityCache availabilityCache,
+                          BookingSummaryCache summaryCache,
+                          BookingEventPublisher bookingEventPublisher,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${shareit.booking.expiry.batch-size:500}") int batchSize,
+                          @Value("${shareit.booking.expiry.pause:PT0.1S}") Duration pause) {
+        this.bookingRepository = bookingRepository;
+        this.bookingConflictIndex = bookingConflictIndex;
+        this.availabilityCache = availabilityCache;
+        this.summaryCache = summaryCache;
+        this.bookingEventPublisher = bookingEventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.expiredRows = Counter.builder("shareit.booking.expiry.rows")
+                .description("WAITING bookings moved to EXPIRED")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("shareit.booking.expiry.run")
+                .description("Duration of one expiry run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking.expiry.interval:PT5M}",
+            fixedDelayString = "${shareit.booking.expiry.interval:PT5M}")
+    public void expireStaleBookings() {
+        expire(LocalDateTime.now());
+    }
+
+    public int expire(LocalDateTime now) {
+        return runTimer.record(() -> {
+            int total = 0;
+            int expired;
+            do {
+                expired = transactionTemplate.execute(status -> expireChunk(now));
+                total += expired;
+                expiredRows.increment(expired);
+            } while (expired == batchSize && pauseBetweenChunks());
+            log.info("expired {} WAITING bookings started before {}", total, now);
+            return total;
+        });
+    }
+
+    private int expireChunk(LocalDateTime now) {
+        List<Booking> bookings = bookingRepository.findExpiredWaiting(now, PageRequest.of(0, batchSize));
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = bookings.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+        if (bookingRepository.updateWaitingStatus(ids, BookingStatus.EXPIRED) != ids.size()) {
+            bookings = bookingRepository.findAllWithItemByIdIn(ids).stream()
+                    .filter(booking -> booking.getStatus() == BookingStatus.EXPIRED)
+                    .collect(Collectors.toList());
+        }
+        bookingEventPublisher.publishAll(bookings, BookingStatus.EXPIRED);
+        for (Booking booking : bookings) {
+            bookingConflictIndex.release(booking);
+            availabilityCache.evict(booking.getItem().getId());
+            summaryCache.evict(booking.getBooker().getId(), booking.getItem().getOwner().getId());
+        }
+        return bookings.size();
+    }
+
+    private boolean pauseBetweenChunks() {
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 
 import java.util.List;
 
@@ -10,9 +14,19 @@ public interface BookingService {
 
     BookingResponseDto approveBooking(Long userId, Long bookingId, Boolean approved);
 
+    List<BookingApprovalResultDto> approveBookings(Long userId, List<BookingApprovalDto> approvals);
+
     BookingResponseDto getBookingById(Long userId, Long bookingId);
 
     List<BookingResponseDto> getBookingsByUser(Long userId, String state, Integer from, Integer size);
 
     List<BookingResponseDto> getBookingsByOwner(Long userId, String state, Integer from, Integer size);
+
+    BookingPageDto getBookingsByUser(Long userId, String state, String cursor, Integer size);
+
+    BookingPageDto getBookingsByOwner(Long userId, String state, String cursor, Integer size);
+
+    BookingSummaryDto getBookingsSummaryByUser(Long userId);
+
+    BookingSummaryDto getBookingsSummaryByOwner(Long userId);
 }
@@ -2,27 +2,53 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.conflict.BookingConflictIndex;
+import ru.practicum.shareit.booking.conflict.IntervalTree;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.outbox.BookingEventPublisher;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.common.CustomPageRequest;
+import ru.practicum.shareit.common.MergingIterator;
+import ru.practicum.shareit.common.SeekCursor;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.EntityNotExistException;
 import ru.practicum.shareit.exception.OperationNotAllowed;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemAvailabilityCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,9 +56,25 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    private static final int MAX_APPROVE_ATTEMPTS = 3;
+    private static final int MAX_MERGED_OFFSET = 10_000;
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59);
+    private static final Comparator<BookingResponseDto> BOOKING_ORDER = Comparator
+            .comparing(BookingResponseDto::getStart)
+            .thenComparing(BookingResponseDto::getId)
+            .reversed();
+
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingConflictIndex bookingConflictIndex;
+    private final ItemAvailabilityCache availabilityCache;
+    private final BookingSummaryCache summaryCache;
+    private final BookingEventPublisher bookingEventPublisher;
+    private final BookingDatesResolver bookingDatesResolver;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional
@@ -60,13 +102,41 @@ public class BookingServiceImpl implements BookingService {
             log.warn("item can't be booked by owner");
             throw new EntityNotExistException("Вещь не может быть забронирована владельцем.");
         }
-        return BookingMapper.INSTANCE.bookingToBookingResponseDto(bookingRepository.save(booking));
+        return bookingConflictIndex.withItemLock(itemId, () -> {
+            IntervalTree.Interval conflict = bookingConflictIndex.findConflict(itemId, booking.getStart(), booking.getEnd());
+            if (conflict != null) {
+                log.warn("item with id={} already booked by booking with id={}", itemId, conflict.getId());
+                throw new ConflictException(String.format("Вещь с id=%d уже забронирована на это время.", itemId));
+            }
+            Booking savedBooking = bookingRepository.save(booking);
+            bookingConflictIndex.reserve(savedBooking);
+            bookingEventPublisher.publish(savedBooking, BookingStatus.WAITING);
+            availabilityCache.evict(itemId);
+            summaryCache.evict(bookerId, item.getOwner().getId());
+            return BookingMapper.INSTANCE.bookingToBookingResponseDto(savedBooking);
+        });
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BookingResponseDto approveBooking(Long userId, Long bookingId, Boolean approved) {
         log.info("approveBooking: userId={}, booking={}, approved={}", userId, bookingId, approved);
+        int attempts = TransactionSynchronizationManager.isActualTransactionActive() ? 1 : MAX_APPROVE_ATTEMPTS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> doApproveBooking(userId, bookingId, approved));
+            } catch (ConcurrencyFailureException ex) {
+                if (attempt >= attempts) {
+                    log.warn("booking with id={} was changed concurrently, attempts={}", bookingId, attempt);
+                    throw new ConflictException(String.format("Бронирование с id=%d было изменено параллельно, " +
+                            "повторите запрос.", bookingId));
+                }
+                log.info("booking with id={} was changed concurrently, retrying", bookingId);
+            }
+        }
+    }
+
+    private BookingResponseDto doApproveBooking(Long userId, Long bookingId, Boolean approved) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> {
             log.warn("booking with id={} not exist", bookingId);
             throw new EntityNotExistException(String.format("Бронирование с id=%d не существует.", bookingId));
@@ -78,6 +148,20 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus() == BookingStatus.WAITING) {
             BookingStatus status = (approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
             booking.setStatus(status);
+            try {
+                bookingRepository.saveAndFlush(booking);
+            } catch (DataIntegrityViolationException ex) {
+                throw overlapConflict(String.format("Вещь с id=%d уже забронирована на это время.",
+                        booking.getItem().getId()), ex);
+            }
+            bookingEventPublisher.publish(booking, status);
+            if (status == BookingStatus.REJECTED) {
+                bookingConflictIndex.release(booking);
+            } else {
+                bookingDatesResolver.refreshPointers(List.of(booking.getItem().getId()), LocalDateTime.now());
+            }
+            availabilityCache.evict(booking.getItem().getId());
+            summaryCache.evict(booking.getBooker().getId(), userId);
         } else {
             log.warn("booking with not WAITING status");
             throw new OperationNotAllowed("Бронирование не в статусе ожидания подтверждения.");
@@ -85,13 +169,79 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.INSTANCE.bookingToBookingResponseDto(booking);
     }
 
+    @Override
+    @Transactional
+    public List<BookingApprovalResultDto> approveBookings(Long userId, List<BookingApprovalDto> approvals) {
+        log.info("approveBookings: userId={}, count={}", userId, approvals.size());
+        Set<Long> bookingIds = approvals.stream()
+                .map(BookingApprovalDto::getBookingId)
+                .collect(Collectors.toSet());
+        Map<Long, Booking> bookings = new HashMap<>();
+        if (!bookingIds.isEmpty()) {
+            bookingRepository.findAllWithItemByIdIn(bookingIds).forEach(booking -> bookings.put(booking.getId(), booking));
+        }
+        Map<BookingStatus, List<Booking>> decisions = new EnumMap<>(BookingStatus.class);
+        Set<Long> decided = new HashSet<>();
+        List<BookingApprovalResultDto> results = new ArrayList<>();
+        for (BookingApprovalDto approval : approvals) {
+            Long bookingId = approval.getBookingId();
+            Booking booking = bookings.get(bookingId);
+            String error = null;
+            if (booking == null) {
+                error = String.format("Бронирование с id=%d не существует.", bookingId);
+            } else if (!booking.getItem().getOwner().getId().equals(userId)) {
+                error = String.format("Пользователь с id=%d не является владельцем вещи.", userId);
+            } else if (booking.getStatus() != BookingStatus.WAITING || !decided.add(bookingId)) {
+                error = "Бронирование не в статусе ожидания подтверждения.";
+            }
+            if (error != null) {
+                log.warn("booking with id={} can't be approved: {}", bookingId, error);
+                results.add(new BookingApprovalResultDto(bookingId, null, error));
+                continue;
+            }
+            BookingStatus status = (approval.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+            decisions.computeIfAbsent(status, key -> new ArrayList<>()).add(booking);
+            results.add(new BookingApprovalResultDto(bookingId, status, null));
+        }
+        decisions.forEach((status, decidedBookings) -> {
+            List<Long> ids = decidedBookings.stream()
+                    .map(Booking::getId)
+                    .collect(Collectors.toList());
+            int updated;
+            try {
+                updated = bookingRepository.updateWaitingStatus(ids, status);
+            } catch (DataIntegrityViolationException ex) {
+                throw overlapConflict("Подтверждаемые бронирования пересекаются с уже подтверждёнными.", ex);
+            }
+            if (updated != ids.size()) {
+                log.warn("bookings {} were changed concurrently", ids);
+                throw new ConflictException("Статус части бронирований был изменён параллельно.");
+            }
+            bookingEventPublisher.publishAll(decidedBookings, status);
+        });
+        decisions.getOrDefault(BookingStatus.REJECTED, List.of()).forEach(bookingConflictIndex::release);
+        bookingDatesResolver.refreshPointers(decisions.getOrDefault(BookingStatus.APPROVED, List.of()).stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet()), LocalDateTime.now());
+        decisions.values().stream()
+                .flatMap(List::stream)
+                .forEach(booking -> {
+                    availabilityCache.evict(booking.getItem().getId());
+                    summaryCache.evict(booking.getBooker().getId(), userId);
+                });
+        return results;
+    }
+
     @Override
     public BookingResponseDto getBookingById(Long userId, Long bookingId) {
         log.info("getBookingById: userId={}, booking={}", userId, bookingId);
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> {
-            log.warn("booking with id={} not exist", bookingId);
-            throw new EntityNotExistException(String.format("Бронирование с id=%d не существует.", bookingId));
-        });
+        Booking booking = bookingRepository.findById(bookingId)
+                .or(() -> archivedBookingRepository.findById(bookingId)
+                        .map(BookingMapper.INSTANCE::archivedBookingToBooking))
+                .orElseThrow(() -> {
+                    log.warn("booking with id={} not exist", bookingId);
+                    throw new EntityNotExistException(String.format("Бронирование с id=%d не существует.", bookingId));
+                });
         Long bookerId = booking.getBooker().getId();
         Long ownerId = booking.getItem().getOwner().getId();
         if (!userId.equals(bookerId) && !userId.equals(ownerId)) {
@@ -111,32 +261,41 @@ public class BookingServiceImpl implements BookingService {
         State bookingState;
         bookingState = State.valueOf(state.toUpperCase());
         PageRequest pageRequest = new CustomPageRequest(from, size);
-        List<Booking> bookingList;
+        PageRequest tierPageRequest = archivedStatuses(bookingState).isEmpty()
+                ? pageRequest : tierPageRequest(from, size);
+        List<BookingResponseDto> bookingList;
         switch (bookingState) {
             case ALL:
-                bookingList = bookingRepository.findAllByBookerIdOrderByStartDesc(userId, pageRequest);
+                bookingList = MergingIterator.merge(bookingRepository.findAllByBookerId(userId, tierPageRequest),
+                        archivedBookingRepository.findAllByBookerId(userId, tierPageRequest),
+                        BOOKING_ORDER, from, size);
                 break;
             case PAST:
-                bookingList = bookingRepository.findAllByBookerIdAndEndIsBeforeOrderByStartDesc(userId, LocalDateTime.now(), pageRequest);
+                bookingList = MergingIterator.merge(
+                        bookingRepository.findAllByBookerIdAndEndIsBefore(userId, LocalDateTime.now(),
+                                tierPageRequest),
+                        archivedBookingRepository.findAllByBookerId(userId, tierPageRequest),
+                        BOOKING_ORDER, from, size);
                 break;
             case FUTURE:
-                bookingList = bookingRepository.findAllByBookerIdAndStartIsAfterOrderByStartDesc(userId, LocalDateTime.now(), pageRequest);
+                bookingList = bookingRepository.findAllByBookerIdAndStartIsAfter(userId, LocalDateTime.now(), pageRequest);
                 break;
             case CURRENT:
                 bookingList = bookingRepository.findAllByBookerCurrentDate(userId, LocalDateTime.now(), pageRequest);
                 break;
             case WAITING:
-                bookingList = bookingRepository.findAllByBookerIdAndStatus(userId, BookingStatus.WAITING, pageRequest);
-                break;
             case REJECTED:
-                bookingList = bookingRepository.findAllByBookerIdAndStatus(userId, BookingStatus.REJECTED, pageRequest);
+            case EXPIRED:
+                BookingStatus status = BookingStatus.valueOf(bookingState.name());
+                bookingList = MergingIterator.merge(
+                        bookingRepository.findAllByBookerIdAndStatus(userId, status, tierPageRequest),
+                        archivedBookingRepository.findAllByBookerIdAndStatus(userId, status, tierPageRequest),
+                        BOOKING_ORDER, from, size);
                 break;
             default:
                 bookingList = new ArrayList<>();
         }
-        return bookingList.stream()
-                .map(BookingMapper.INSTANCE::bookingToBookingResponseDto)
-                .collect(Collectors.toList());
+        return bookingList;
     }
 
     @Override
@@ -149,13 +308,21 @@ public class BookingServiceImpl implements BookingService {
         State bookingState;
         bookingState = State.valueOf(state.toUpperCase());
         PageRequest pageRequest = new CustomPageRequest(from, size);
-        List<Booking> bookingList;
+        PageRequest tierPageRequest = archivedStatuses(bookingState).isEmpty()
+                ? pageRequest : tierPageRequest(from, size);
+        List<BookingResponseDto> bookingList;
         switch (bookingState) {
             case ALL:
-                bookingList = bookingRepository.findAllByOwnerId(userId, pageRequest);
+                bookingList = MergingIterator.merge(bookingRepository.findAllByOwnerId(userId, tierPageRequest),
+                        archivedBookingRepository.findAllByOwnerId(userId, tierPageRequest),
+                        BOOKING_ORDER, from, size);
                 break;
             case PAST:
-                bookingList = bookingRepository.findAllByOwnerIdAndEndIsBefore(userId, LocalDateTime.now(), pageRequest);
+                bookingList = MergingIterator.merge(
+                        bookingRepository.findAllByOwnerIdAndEndIsBefore(userId, LocalDateTime.now(),
+                                tierPageRequest),
+                        archivedBookingRepository.findAllByOwnerId(userId, tierPageRequest),
+                        BOOKING_ORDER, from, size);
                 break;
             case FUTURE:
                 bookingList = bookingRepository.findAllByOwnerIdAndStartIsAfter(userId, LocalDateTime.now(), pageRequest);
@@ -164,16 +331,173 @@ public class BookingServiceImpl implements BookingService {
                 bookingList = bookingRepository.findAllByOwnerCurrentDate(userId, LocalDateTime.now(), pageRequest);
                 break;
             case WAITING:
-                bookingList = bookingRepository.findAllByOwnerIdAndStatus(userId, BookingStatus.WAITING, pageRequest);
-                break;
             case REJECTED:
-                bookingList = bookingRepository.findAllByOwnerIdAndStatus(userId, BookingStatus.REJECTED, pageRequest);
+            case EXPIRED:
+                BookingStatus status = BookingStatus.valueOf(bookingState.name());
+                bookingList = MergingIterator.merge(
+                        bookingRepository.findAllByOwnerIdAndStatus(userId, status, tierPageRequest),
+                        archivedBookingRepository.findAllByOwnerIdAndStatus(userId, status, tierPageRequest),
+                        BOOKING_ORDER, from, size);
                 break;
             default:
                 bookingList = new ArrayList<>();
         }
-        return bookingList.stream()
-                .map(BookingMapper.INSTANCE::bookingToBookingResponseDto)
-                .collect(Collectors.toList());
+        return bookingList;
+    }
+
+    @Override
+    public BookingPageDto getBookingsByUser(Long userId, String state, String cursor, Integer size) {
+        log.info("getBookingsByUser: userId={}, state={}, cursor={}", userId, state, cursor);
+        return getBookingsPage(userId, false, state, cursor, size);
+    }
+
+    @Override
+    public BookingPageDto getBookingsByOwner(Long userId, String state, String cursor, Integer size) {
+        log.info("getBookingsByOwner: userId={}, state={}, cursor={}", userId, state, cursor);
+        return getBookingsPage(userId, true, state, cursor, size);
+    }
+
+    @Override
+    public BookingSummaryDto getBookingsSummaryByUser(Long userId) {
+        log.info("getBookingsSummaryByUser: userId={}", userId);
+        return getBookingsSummary(userId, false);
+    }
+
+    @Override
+    public BookingSummaryDto getBookingsSummaryByOwner(Long userId) {
+        log.info("getBookingsSummaryByOwner: userId={}", userId);
+        return getBookingsSummary(userId, true);
+    }
+
+    private static RuntimeException overlapConflict(String message, DataIntegrityViolationException ex) {
+        String cause = String.valueOf(ex.getMostSpecificCause().getMessage());
+        if (!cause.contains(BookingRepository.APPROVED_OVERLAP_CONSTRAINT)) {
+            return ex;
+        }
+        log.warn("approved bookings overlap: {}", cause);
+        return new ConflictException(message);
+    }
+
+    /**
+     * Archived bookings all ended in the past, so only the states that can hold past bookings read the
+     * archive too.
+     */
+    private static Collection<BookingStatus> archivedStatuses(State state) {
+        switch (state) {
+            case ALL:
+            case PAST:
+                return EnumSet.allOf(BookingStatus.class);
+            case WAITING:
+            case REJECTED:
+            case EXPIRED:
+                return EnumSet.of(BookingStatus.valueOf(state.name()));
+            default:
+                return EnumSet.noneOf(BookingStatus.class);
+        }
+    }
+
+    /**
+     * Both tiers are read from their first row and merged in memory, so the offset is capped to keep a
+     * page's cost bounded; deeper pages are served by the cursor listing.
+     */
+    private static PageRequest tierPageRequest(int from, int size) {
+        if (from > MAX_MERGED_OFFSET) {
+            log.warn("offset {} is too deep for the merged listing", from);
+            throw new ValidationException(String.format("Смещение не может быть больше %d, " +
+                    "используйте постраничный курсор.", MAX_MERGED_OFFSET));
+        }
+        return new CustomPageRequest(0, Math.addExact(from, size));
+    }
+
+    private BookingSummaryDto getBookingsSummary(Long userId, boolean owner) {
+        userRepository.findById(userId).orElseThrow(() -> {
+            log.warn("user with id={} not exist", userId);
+            throw new EntityNotExistException(String.format("Пользователь с id=%d не существует.", userId));
+        });
+        return summaryCache.get(userId, owner, () -> {
+            BookingSummaryDto summary = owner
+                    ? bookingRepository.getOwnerSummary(userId, LocalDateTime.now())
+                    : bookingRepository.getBookerSummary(userId, LocalDateTime.now());
+            BookingSummaryDto archived = owner
+                    ? archivedBookingRepository.getOwnerSummary(userId, LocalDateTime.now())
+                    : archivedBookingRepository.getBookerSummary(userId, LocalDateTime.now());
+            summary.setAll(summary.getAll() + archived.getAll());
+            summary.setWaiting(summary.getWaiting() + archived.getWaiting());
+            summary.setCurrent(summary.getCurrent() + archived.getCurrent());
+            summary.setFuture(summary.getFuture() + archived.getFuture());
+            summary.setPast(summary.getPast() + archived.getPast());
+            summary.setRejected(summary.getRejected() + archived.getRejected());
+            summary.setExpired(summary.getExpired() + archived.getExpired());
+            return summary;
+        });
+    }
+
+    private BookingPageDto getBookingsPage(Long userId, boolean owner, String state, String cursor, Integer size) {
+        userRepository.findById(userId).orElseThrow(() -> {
+            log.warn("user with id={} not exist", userId);
+            throw new EntityNotExistException(String.format("Пользователь с id=%d не существует.", userId));
+        });
+        State bookingState = State.valueOf(state.toUpperCase());
+        SeekCursor seekCursor = cursor.isBlank() ? null : SeekCursor.decode(cursor);
+        List<BookingResponseDto> bookings = findPageAfter(userId, owner, bookingState, LocalDateTime.now(),
+                seekCursor, size);
+        Collection<BookingStatus> archivedStatuses = archivedStatuses(bookingState);
+        if (!archivedStatuses.isEmpty()) {
+            LocalDateTime cursorStart = seekCursor == null ? MAX_DATE : seekCursor.getStart();
+            Long cursorId = seekCursor == null ? Long.MAX_VALUE : seekCursor.getId();
+            PageRequest limit = PageRequest.of(0, size);
+            List<BookingResponseDto> archived = owner
+                    ? archivedBookingRepository.findOwnerPageAfter(userId, archivedStatuses, cursorStart, cursorId,
+                    limit)
+                    : archivedBookingRepository.findBookerPageAfter(userId, archivedStatuses, cursorStart, cursorId,
+                    limit);
+            bookings = MergingIterator.merge(bookings, archived, BOOKING_ORDER, 0, size);
+        }
+        String nextCursor = null;
+        if (bookings.size() == size) {
+            BookingResponseDto last = bookings.get(bookings.size() - 1);
+            nextCursor = new SeekCursor(last.getStart(), last.getId()).encode();
+        }
+        return new BookingPageDto(bookings, nextCursor);
+    }
+
+    private List<BookingResponseDto> findPageAfter(Long userId, boolean owner, State state, LocalDateTime now,
+                                                   SeekCursor cursor, int size) {
+        Collection<BookingStatus> statuses = EnumSet.allOf(BookingStatus.class);
+        LocalDateTime startAfter = MIN_DATE;
+        LocalDateTime startBefore = MAX_DATE;
+        LocalDateTime endAfter = MIN_DATE;
+        LocalDateTime endBefore = MAX_DATE;
+        switch (state) {
+            case PAST:
+                endBefore = now;
+                break;
+            case FUTURE:
+                startAfter = now;
+                break;
+            case CURRENT:
+                startBefore = now;
+                endAfter = now;
+                break;
+            case WAITING:
+                statuses = EnumSet.of(BookingStatus.WAITING);
+                break;
+            case REJECTED:
+                statuses = EnumSet.of(BookingStatus.REJECTED);
+                break;
+            case EXPIRED:
+                statuses = EnumSet.of(BookingStatus.EXPIRED);
+                break;
+            default:
+                break;
+        }
+        LocalDateTime cursorStart = cursor == null ? MAX_DATE : cursor.getStart();
+        Long cursorId = cursor == null ? Long.MAX_VALUE : cursor.getId();
+        PageRequest limit = PageRequest.of(0, size);
+        return owner
+                ? bookingRepository.findOwnerPageAfter(userId, statuses, startAfter, startBefore, endAfter, endBefore,
+                cursorStart, cursorId, limit)
+                : bookingRepository.findBookerPageAfter(userId, statuses, startAfter, startBefore, endAfter, endBefore,
+                cursorStart, cursorId, limit);
     }
 }
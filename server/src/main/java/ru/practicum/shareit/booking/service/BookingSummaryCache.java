@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.common.TransactionHooks;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of booking counters. CURRENT, FUTURE and PAST depend on the clock, so entries
+ * expire after the configured TTL even without writes; a zero TTL disables caching. Each map is kept in
+ * load order, so expired entries are dropped from its head as new ones come in, and holds at most the
+ * configured number of users; a zero size leaves it bounded by the TTL alone.
+ */
+@Component
+public class BookingSummaryCache {
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<Long, Entry> bookerSummaries = new LinkedHashMap<>();
+    private final Map<Long, Entry> ownerSummaries = new LinkedHashMap<>();
+
+    private static final class Entry {
+        private final BookingSummaryDto summary;
+        private final long expiresAt;
+
+        private Entry(BookingSummaryDto summary, long expiresAt) {
+            this.summary = summary;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public BookingSummaryCache(@Value("${shareit.booking.summary-cache-ttl:5s}") Duration ttl,
+                               @Value("${shareit.booking.summary-cache-max-size:10000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    public BookingSummaryDto get(Long userId, boolean owner, Supplier<BookingSummaryDto> loader) {
+        if (ttlNanos <= 0) {
+            return loader.get();
+        }
+        Map<Long, Entry> summaries = owner ? ownerSummaries : bookerSummaries;
+        long now = System.nanoTime();
+        synchronized (summaries) {
+            Entry entry = summaries.get(userId);
+            if (entry != null && entry.expiresAt - now > 0) {
+                return entry.summary;
+            }
+        }
+        BookingSummaryDto loaded = loader.get();
+        synchronized (summaries) {
+            // re-inserted at the tail, so that the head holds the entries that expire first
+            summaries.remove(userId);
+            summaries.put(userId, new Entry(loaded, now + ttlNanos));
+            purge(summaries, now);
+        }
+        return loaded;
+    }
+
+    public void evict(Long bookerId, Long ownerId) {
+        Runnable eviction = () -> {
+            synchronized (bookerSummaries) {
+                bookerSummaries.remove(bookerId);
+            }
+            synchronized (ownerSummaries) {
+                ownerSummaries.remove(ownerId);
+            }
+        };
+        eviction.run();
+        TransactionHooks.afterCompletion(eviction);
+    }
+
+    private void purge(Map<Long, Entry> summaries, long now) {
+        Iterator<Entry> entries = summaries.values().iterator();
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            if (entry.expiresAt - now > 0 && (maxSize <= 0 || summaries.size() <= maxSize)) {
+                break;
+            }
+            entries.remove();
+        }
+    }
+}
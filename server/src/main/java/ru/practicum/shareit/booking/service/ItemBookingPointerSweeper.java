@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Keeps the denormalized item booking pointers in step with the clock and with the booking tables.
+ * The sweep rolls "next" into "last" for items whose next booking has started; the reconciliation
+ * walks every item and repairs pointers that drifted (concurrent approvals, deleted users, restores).
+ * It compares each chunk without locks first and locks only the items that drifted, so that the walk
+ * does not hold up item edits and approvals across the whole table.
+ */
+@Component
+@Slf4j
+public class ItemBookingPointerSweeper {
+    private final ItemRepository itemRepository;
+    private final BookingDatesResolver bookingDatesResolver;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter rolledOver;
+    private final Counter repaired;
+
+    public ItemBookingPointerSweeper(ItemRepository itemRepository,
+                                     BookingDatesResolver bookingDatesResolver,
+                                     TransactionTemplate transactionTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${shareit.item.booking-pointers.batch-size:500}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.bookingDatesResolver = bookingDatesResolver;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.rolledOver = Counter.builder("shareit.item.booking-pointers.rolled-over")
+                .description("Items whose next booking started and became the last one")
+                .register(meterRegistry);
+        this.repaired = Counter.builder("shareit.item.booking-pointers.repaired")
+                .description("Items whose booking pointers were found out of date by reconciliation")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item.booking-pointers.sweep-interval:PT1M}")
+    public void sweepScheduled() {
+        sweep(LocalDateTime.now());
+    }
+
+    @Scheduled(initialDelayString = "${shareit.item.booking-pointers.reconcile-initial-delay:PT10S}",
+            fixedDelayString = "${shareit.item.booking-pointers.reconcile-interval:PT1H}")
+    public void reconcileScheduled() {
+        reconcile(LocalDateTime.now());
+    }
+
+    public int sweep(LocalDateTime now) {
+        int changed = refreshAll(now, (afterId, page) -> itemRepository.findIdsWithStartedNextBooking(now, afterId, page),
+                false);
+        rolledOver.increment(changed);
+        return changed;
+    }
+
+    public int reconcile(LocalDateTime now) {
+        int changed = refreshAll(now, itemRepository::findIdsAfter, true);
+        repaired.increment(changed);
+        if (changed > 0) {
+            log.warn("repaired booking pointers of {} items", changed);
+        }
+        return changed;
+    }
+
+    /**
+     * @param checkFirst whether to refresh only the items of each chunk found drifted by an unlocked read;
+     *                   the sweep's chunks are drifted by construction
+     */
+    private int refreshAll(LocalDateTime now, BiFunction<Long, PageRequest, List<Long>> nextChunk,
+                           boolean checkFirst) {
+        int changed = 0;
+        long afterId = 0;
+        PageRequest page = PageRequest.of(0, batchSize);
+        List<Long> itemIds;
+        do {
+            long chunkAfterId = afterId;
+            itemIds = transactionTemplate.execute(status -> nextChunk.apply(chunkAfterId, page));
+            if (itemIds.isEmpty()) {
+                break;
+            }
+            List<Long> chunk = itemIds;
+            List<Long> stale = checkFirst
+                    ? transactionTemplate.execute(status -> bookingDatesResolver.findDrifted(chunk, now))
+                    : chunk;
+            if (!stale.isEmpty()) {
+                changed += transactionTemplate.execute(status -> bookingDatesResolver.refreshPointers(stale, now));
+            }
+            afterId = itemIds.get(itemIds.size() - 1);
+        } while (itemIds.size() == batchSize);
+        return changed;
+    }
+}
@@ -4,12 +4,30 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 
 public class CustomPageRequest extends PageRequest {
+    private final long offset;
+
     public CustomPageRequest(int page, int size, Sort sort) {
         super(page, size, sort);
+        this.offset = (long) page * size;
     }
 
     public CustomPageRequest(int from, int size) {
         super(from / size, size, Sort.unsorted());
+        this.offset = from;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof CustomPageRequest && super.equals(obj) && offset == ((CustomPageRequest) obj).offset;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Long.hashCode(offset);
+    }
 }
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.common;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily merges two iterators that are already sorted by the same comparator. On ties the element
+ * of the first iterator comes first.
+ */
+public class MergingIterator<T> implements Iterator<T> {
+    private final Iterator<? extends T> first;
+    private final Iterator<? extends T> second;
+    private final Comparator<? super T> comparator;
+    private T nextFirst;
+    private T nextSecond;
+
+    public MergingIterator(Iterator<? extends T> first, Iterator<? extends T> second, Comparator<? super T> comparator) {
+        this.first = first;
+        this.second = second;
+        this.comparator = comparator;
+        this.nextFirst = first.hasNext() ? first.next() : null;
+        this.nextSecond = second.hasNext() ? second.next() : null;
+    }
+
+    public static <T> List<T> merge(List<? extends T> first, List<? extends T> second, Comparator<? super T> comparator,
+                                    int skip, int limit) {
+        Iterator<T> merged = new MergingIterator<>(first.iterator(), second.iterator(), comparator);
+        for (int i = 0; i < skip && merged.hasNext(); i++) {
+            merged.next();
+        }
+        List<T> result = new ArrayList<>(limit);
+        while (result.size() < limit && merged.hasNext()) {
+            result.add(merged.next());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextFirst != null || nextSecond != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T result;
+        if (nextSecond == null || (nextFirst != null && comparator.compare(nextFirst, nextSecond) <= 0)) {
+            result = nextFirst;
+            nextFirst = first.hasNext() ? first.next() : null;
+        } else {
+            result = nextSecond;
+            nextSecond = second.hasNext() ? second.next() : null;
+        }
+        return result;
+    }
+}
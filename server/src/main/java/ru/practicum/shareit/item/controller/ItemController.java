@@ -1,13 +1,18 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -16,6 +21,7 @@ import java.util.List;
 public class ItemController {
     public static final String USER_HEADER = "X-Sharer-User-Id";
     private final ItemService itemService;
+    private final ItemImporter itemImporter;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -24,6 +30,13 @@ public class ItemController {
         return itemService.createItem(userId, item);
     }
 
+    @PostMapping("/import")
+    @ResponseStatus(HttpStatus.OK)
+    public ItemImportReportDto importItems(@RequestHeader(USER_HEADER) Long userId,
+                                           @RequestBody List<ItemDto> items) {
+        return itemImporter.importItems(userId, items);
+    }
+
     @PatchMapping("/{itemId}")
     @ResponseStatus(HttpStatus.OK)
     public ItemDto updateItem(@RequestHeader(USER_HEADER) Long userId, @PathVariable Long itemId,
@@ -54,9 +67,34 @@ public class ItemController {
     @GetMapping("/search")
     @ResponseStatus(HttpStatus.OK)
     public List<ItemDto> searchItem(@RequestParam String text,
+                                    @RequestParam(defaultValue = "false") Boolean ranked,
+                                    @RequestParam(defaultValue = "false") Boolean fuzzy,
                                     @RequestParam(defaultValue = "0") Integer from,
                                     @RequestParam(defaultValue = "10") Integer size) {
-        return itemService.searchItem(text, from, size);
+        return itemService.searchItem(text, ranked, fuzzy, from, size);
+    }
+
+    @GetMapping("/suggest")
+    @ResponseStatus(HttpStatus.OK)
+    public List<String> suggestItemNames(@RequestParam String prefix,
+                                         @RequestParam(defaultValue = "10") Integer limit) {
+        return itemService.suggestItemNames(prefix, limit);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    @ResponseStatus(HttpStatus.OK)
+    public List<FreeSlotDto> getItemAvailability(@RequestHeader(USER_HEADER) Long userId, @PathVariable Long itemId,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getItemAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    @ResponseStatus(HttpStatus.OK)
+    public List<CommentDto> getItemComments(@PathVariable Long itemId,
+                                            @RequestParam(defaultValue = "0") Long after,
+                                            @RequestParam(defaultValue = "20") Integer limit) {
+        return itemService.getItemComments(itemId, after, limit);
     }
 
     @PostMapping("/{itemId}/comment")
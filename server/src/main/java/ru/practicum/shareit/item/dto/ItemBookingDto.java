@@ -16,4 +16,13 @@ public class ItemBookingDto extends ItemDto {
     BookingForItemDto lastBooking;
     BookingForItemDto nextBooking;
     List<CommentDto> comments = new ArrayList<>();
+
+    public ItemBookingDto(Long id, String name, String description, Boolean available, Long requestId) {
+        super(id, name, description, available, requestId);
+    }
+
+    public ItemBookingDto(Long id, String name, String description, Boolean available, Long requestId,
+                          Integer commentCount) {
+        super(id, name, description, available, requestId, commentCount);
+    }
 }
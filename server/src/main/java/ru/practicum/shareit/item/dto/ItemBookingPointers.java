@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.dto;
+
+public interface ItemBookingPointers {
+    Long getId();
+
+    Long getLastBookingId();
+
+    Long getNextBookingId();
+}
@@ -1,17 +1,33 @@
 package ru.practicum.shareit.item.dto;
 
 import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.FieldDefaults;
 
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
 @Data
 @NoArgsConstructor
+@AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class ItemDto {
     Long id;
+    @NotBlank(message = "Невозможно создать вещь без названия.")
+    @Size(max = 50, message = "Название вещи длиннее {max} символов.")
     String name;
+    @NotBlank(message = "Невозможно создать вещь без описания.")
+    @Size(max = 250, message = "Описание вещи длиннее {max} символов.")
     String description;
+    @NotNull(message = "Невозможно создать вещь без статуса доступности.")
     Boolean available;
     Long requestId;
+    Integer commentCount;
+
+    public ItemDto(Long id, String name, String description, Boolean available, Long requestId) {
+        this(id, name, description, available, requestId, null);
+    }
 }
\ No newline at end of file
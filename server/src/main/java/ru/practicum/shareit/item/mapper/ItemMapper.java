@@ -14,6 +14,7 @@ public interface ItemMapper {
     @Mapping(target = "requestId", source = "request.id")
     ItemDto itemToItemDto(Item item);
 
+    @Mapping(target = "commentCount", ignore = true)
     Item itemDtoToItem(ItemDto itemDto);
 
     ItemBookingDto itemToItemBookingDto(Item item);
@@ -13,7 +13,8 @@ import javax.validation.constraints.NotNull;
 @Data
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     @Column(name = "item_id")
     private Long id;
     @NotBlank
@@ -25,10 +26,19 @@ public class Item {
     @NotNull
     @Column(name = "is_available")
     private Boolean available;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User owner;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private ItemRequest request;
+    @Column(name = "last_booking_id", insertable = false, updatable = false)
+    private Long lastBookingId;
+    @Column(name = "next_booking_id", insertable = false, updatable = false)
+    private Long nextBookingId;
+    @Column(name = "comment_count", insertable = false, updatable = false)
+    private Integer commentCount = 0;
+    @Version
+    @Column(name = "version")
+    private Long version;
 }
@@ -1,10 +1,21 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemIdOrderById(Long itemId);
+    @EntityGraph(attributePaths = "author")
+    @Query("select c from Comment c where c.item.id = :itemId order by c.id desc")
+    List<Comment> findByItemIdOrderByIdDesc(@Param("itemId") Long itemId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("select c from Comment c where c.item.id = :itemId and c.id > :afterId order by c.id")
+    List<Comment> findByItemIdAndIdGreaterThanOrderById(@Param("itemId") Long itemId, @Param("afterId") Long afterId,
+                                                        Pageable pageable);
 }
@@ -2,20 +2,89 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.ItemBookingPointers;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-     List<Item> findByOwnerId(Long userId, Pageable pageable);
+    @Query("select new ru.practicum.shareit.item.dto.ItemBookingDto(i.id, i.name, i.description, i.available, r.id, " +
+            "i.commentCount) from Item i left join i.request r where i.owner.id = :userId")
+    List<ItemBookingDto> findByOwnerId(@Param("userId") Long userId, Pageable pageable);
 
-    @Query("select i from Item i " +
-            "where lower(i.name) like lower(concat('%', :text, '%')) " +
-            "or lower(i.description) like lower(concat('%', :text, '%')) " +
-            "and i.available = true")
-    List<Item> searchItem(@Param("text") String text, Pageable pageable);
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id, " +
+            "i.commentCount) from Item i left join i.request r " +
+            "where (lower(i.name) like lower(concat('%', :text, '%')) " +
+            "or lower(i.description) like lower(concat('%', :text, '%'))) " +
+            "and i.available = true order by i.id")
+    List<ItemDto> searchItem(@Param("text") String text, Pageable pageable);
 
-    List<Item> findAllByRequestId(Long id);
+    @Query("select i.name from Item i where i.available = true and (lower(i.name) like lower(concat(:prefix, '%')) " +
+            "or lower(i.name) like lower(concat('% ', :prefix, '%'))) group by i.name order by count(i) desc, i.name")
+    List<String> suggestNames(@Param("prefix") String prefix, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id, " +
+            "i.commentCount) from Item i left join i.request r where i.id > :afterId order by i.id")
+    List<ItemDto> findAllAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id, " +
+            "i.commentCount) from Item i left join i.request r where i.owner.id = :userId or r.requester.id = :userId")
+    List<ItemDto> findAllOwnedOrRequestedBy(@Param("userId") Long userId);
+
+    @Query("select i from Item i where i.request.id = :requestId")
+    List<Item> findAllByRequestId(@Param("requestId") Long requestId);
+
+    @Query("select i from Item i where i.request.id in :requestIds")
+    List<Item> findAllByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    List<ItemBookingPointers> findPointersByIdIn(Collection<Long> ids);
+
+    /**
+     * Reads the pointers and locks the item rows, in id order so concurrent refreshes can't deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ItemBookingPointers> findPointersForUpdateByIdInOrderById(Collection<Long> ids);
+
+    @Query("select i.id from Item i where i.id > :afterId order by i.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select i.id from Item i, Booking b where b.id = i.nextBookingId and b.start <= :now " +
+            "and i.id > :afterId order by i.id")
+    List<Long> findIdsWithStartedNextBooking(@Param("now") LocalDateTime now, @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id, " +
+            "i.commentCount) from Item i left join i.request r where i.id in :ids " +
+            "and i.commentCount <> (select count(c) from Comment c where c.item = i) order by i.id")
+    List<ItemDto> findAllWithCommentCountDriftIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id, " +
+            "i.commentCount) from Item i left join i.request r where i.id in :ids order by i.id")
+    List<ItemDto> findAllByIdInOrderById(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Item i set i.commentCount = i.commentCount + 1 where i.id = :itemId")
+    int incrementCommentCount(@Param("itemId") Long itemId);
+
+    @Query("select i.commentCount from Item i where i.id = :itemId")
+    Integer findCommentCountById(@Param("itemId") Long itemId);
+
+    @Modifying
+    @Query("update Item i set i.commentCount = (select count(c) from Comment c where c.item.id = i.id) " +
+            "where i.id in :ids")
+    int recountComments(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Item i set i.lastBookingId = :lastBookingId, i.nextBookingId = :nextBookingId where i.id = :itemId")
+    int updateBookingPointers(@Param("itemId") Long itemId, @Param("lastBookingId") Long lastBookingId,
+                              @Param("nextBookingId") Long nextBookingId);
 }
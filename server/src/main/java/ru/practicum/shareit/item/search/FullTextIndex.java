@@ -0,0 +1,378 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Ranked full-text index over item name and description. Terms come from {@link TextAnalyzer}; each term
+ * keeps the items containing it with per-field frequencies. Queries are scored with BM25F: field
+ * frequencies are length-normalized, name hits weigh {@link #NAME_BOOST} times more, and the sum over
+ * query terms is weighted by inverse document frequency. Only available items are returned, best score
+ * first and ties by item id, so pages of an unchanged catalogue are stable. Items are addressed by dense
+ * ordinals so that postings and scored candidates merge in ordinal order; ordinals of removed items are
+ * reused, so the per-ordinal arrays grow with the catalogue, not with its churn. Rare terms are scored first;
+ * once the page is filled by items that the remaining terms cannot overtake, common terms are only looked
+ * up for the candidates instead of being walked in full (MaxScore).
+ * <p>
+ * Fuzzy queries expand every word term through a {@link BkTree} of the vocabulary to the terms within one
+ * edit (stems of 4-6 letters) or two edits (longer stems); an expansion at distance {@code d} is weighted
+ * {@code 1 / (1 + d)}. Not thread-safe.
+ */
+public class FullTextIndex {
+    static final float NAME_BOOST = 2.0f;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MAX_NORM_LENGTH = 255;
+    private static final int MAX_EXPANSIONS = 16;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private long[] itemIds = new long[16];
+    private int[] nameLengths = new int[16];
+    private int[] descriptionLengths = new int[16];
+    private final BitSet available = new BitSet();
+    private int nextOrdinal;
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+    private long totalNameLength;
+    private long totalDescriptionLength;
+    private BkTree vocabulary = new BkTree();
+    private int deadTerms;
+
+    public int size() {
+        return ordinals.size();
+    }
+
+    /**
+     * Indexes the item. {@code previous} is the version currently indexed under the same id, if any.
+     */
+    public void put(ItemDto item, ItemDto previous) {
+        Integer ordinal = ordinals.get(item.getId());
+        if (ordinal == null) {
+            ordinal = freeCount > 0 ? freeOrdinals[--freeCount] : nextOrdinal++;
+            ensureCapacity(ordinal + 1);
+            ordinals.put(item.getId(), ordinal);
+            itemIds[ordinal] = item.getId();
+        } else if (previous != null) {
+            unindex(previous, ordinal);
+        }
+        Map<String, Integer> frequencies = frequencies(item);
+        for (Map.Entry<String, Integer> term : frequencies.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), this::newTerm).add(ordinal, term.getValue());
+        }
+        nameLengths[ordinal] = TextAnalyzer.analyze(item.getName()).size();
+        descriptionLengths[ordinal] = TextAnalyzer.analyze(item.getDescription()).size();
+        totalNameLength += nameLengths[ordinal];
+        totalDescriptionLength += descriptionLengths[ordinal];
+        available.set(ordinal, Boolean.TRUE.equals(item.getAvailable()));
+    }
+
+    public void remove(ItemDto item) {
+        Integer ordinal = ordinals.remove(item.getId());
+        if (ordinal != null) {
+            // the removed version is the indexed one, so no postings are left to the ordinal
+            unindex(item, ordinal);
+            if (freeCount == freeOrdinals.length) {
+                freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+            }
+            freeOrdinals[freeCount++] = ordinal;
+        }
+    }
+
+    /**
+     * @return ids of matching available items, best first
+     */
+    public List<Long> search(String text, boolean fuzzy, int offset, int limit) {
+        int documents = ordinals.size();
+        if (documents == 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+        List<QueryTerm> queryTerms = new ArrayList<>();
+        for (String term : new LinkedHashSet<>(TextAnalyzer.analyze(text))) {
+            int maxEdits = fuzzy ? maxEdits(term) : 0;
+            if (maxEdits == 0) {
+                Postings termPostings = postings.get(term);
+                if (termPostings != null) {
+                    queryTerms.add(new QueryTerm(termPostings, 0));
+                }
+            } else {
+                queryTerms.addAll(expand(term, maxEdits));
+            }
+        }
+        queryTerms.sort(Comparator.comparingInt(queryTerm -> queryTerm.postings.size));
+        List<Postings> terms = new ArrayList<>();
+        float[] idfs = new float[queryTerms.size()];
+        float remainingBound = 0;
+        for (int k = 0; k < queryTerms.size(); k++) {
+            QueryTerm queryTerm = queryTerms.get(k);
+            int frequency = queryTerm.postings.size;
+            terms.add(queryTerm.postings);
+            idfs[k] = (float) Math.log(1 + (documents - frequency + 0.5) / (frequency + 0.5))
+                    / (1 + queryTerm.distance);
+            remainingBound += idfs[k];
+        }
+        int wanted = offset + limit;
+        float[] nameNorms = lengthNorms(totalNameLength, documents, NAME_BOOST);
+        float[] descriptionNorms = lengthNorms(totalDescriptionLength, documents, 1f);
+        Candidates candidates = new Candidates(0);
+        int k = 0;
+        for (; k < terms.size(); k++) {
+            if (candidates.countAbove(remainingBound) >= wanted) {
+                break;
+            }
+            Postings termPostings = terms.get(k);
+            Candidates merged = new Candidates(candidates.size + termPostings.size);
+            int c = 0;
+            int i = 0;
+            while (c < candidates.size || i < termPostings.size) {
+                if (i == termPostings.size
+                        || c < candidates.size && candidates.ordinals[c] < termPostings.ordinals[i]) {
+                    merged.add(candidates.ordinals[c], candidates.scores[c]);
+                    c++;
+                    continue;
+                }
+                int ordinal = termPostings.ordinals[i];
+                float score = score(idfs[k], termPostings.frequencies[i], ordinal, nameNorms, descriptionNorms);
+                if (c < candidates.size && candidates.ordinals[c] == ordinal) {
+                    merged.add(ordinal, candidates.scores[c] + score);
+                    c++;
+                } else if (available.get(ordinal)) {
+                    merged.add(ordinal, score);
+                }
+                i++;
+            }
+            candidates = merged;
+            remainingBound -= idfs[k];
+        }
+        // a term contributes less than its idf, so items not matched yet can no longer reach the page:
+        // the remaining common terms only adjust the scores of the candidates
+        for (; k < terms.size(); k++) {
+            Postings termPostings = terms.get(k);
+            int from = 0;
+            for (int c = 0; c < candidates.size; c++) {
+                int ordinal = candidates.ordinals[c];
+                int position = Arrays.binarySearch(termPostings.ordinals, from, termPostings.size, ordinal);
+                if (position >= 0) {
+                    candidates.scores[c] += score(idfs[k], termPostings.frequencies[position], ordinal,
+                            nameNorms, descriptionNorms);
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+            }
+        }
+        return top(candidates, offset, wanted);
+    }
+
+    private List<QueryTerm> expand(String term, int maxEdits) {
+        List<QueryTerm> expansions = new ArrayList<>();
+        vocabulary.search(term, maxEdits, (candidate, distance) -> {
+            Postings termPostings = postings.get(candidate);
+            if (termPostings != null) {
+                expansions.add(new QueryTerm(termPostings, distance));
+            }
+        });
+        expansions.sort(Comparator.<QueryTerm>comparingInt(expansion -> expansion.distance)
+                .thenComparing(expansion -> -expansion.postings.size));
+        return expansions.size() > MAX_EXPANSIONS ? expansions.subList(0, MAX_EXPANSIONS) : expansions;
+    }
+
+    static int maxEdits(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            if (!Character.isLetter(term.charAt(i))) {
+                return 0;
+            }
+        }
+        return term.length() < 4 ? 0 : term.length() <= 6 ? 1 : 2;
+    }
+
+    private Postings newTerm(String term) {
+        if (maxEdits(term) > 0 && !vocabulary.add(term)) {
+            deadTerms--;
+        }
+        return new Postings();
+    }
+
+    private void dropTerm(String term) {
+        postings.remove(term);
+        if (maxEdits(term) > 0 && ++deadTerms > vocabulary.size() / 2) {
+            vocabulary = new BkTree();
+            postings.keySet().stream()
+                    .filter(live -> maxEdits(live) > 0)
+                    .forEach(vocabulary::add);
+            deadTerms = 0;
+        }
+    }
+
+    private float score(float idf, int frequency, int ordinal, float[] nameNorms, float[] descriptionNorms) {
+        float weight = (frequency >>> 16) * nameNorms[Math.min(nameLengths[ordinal], MAX_NORM_LENGTH)]
+                + (frequency & 0xFFFF) * descriptionNorms[Math.min(descriptionLengths[ordinal], MAX_NORM_LENGTH)];
+        return idf * weight / (K1 + weight);
+    }
+
+    /**
+     * Field weight divided by the BM25 length normalization, tabulated per field length for one query.
+     */
+    private static float[] lengthNorms(long totalLength, int documents, float boost) {
+        float average = Math.max(1f, (float) totalLength / documents);
+        float[] norms = new float[MAX_NORM_LENGTH + 1];
+        for (int length = 0; length <= MAX_NORM_LENGTH; length++) {
+            norms[length] = boost / (1 - B + B * length / average);
+        }
+        return norms;
+    }
+
+    private List<Long> top(Candidates candidates, int offset, int wanted) {
+        Comparator<Integer> ranking = Comparator.<Integer>comparingDouble(c -> candidates.scores[c])
+                .reversed()
+                .thenComparingLong(c -> itemIds[candidates.ordinals[c]]);
+        PriorityQueue<Integer> best = new PriorityQueue<>(wanted + 1, ranking.reversed());
+        float worstScore = 0;
+        long worstId = 0;
+        for (int c = 0; c < candidates.size; c++) {
+            float score = candidates.scores[c];
+            if (best.size() == wanted && (score < worstScore
+                    || score == worstScore && itemIds[candidates.ordinals[c]] > worstId)) {
+                continue;
+            }
+            best.add(c);
+            if (best.size() > wanted) {
+                best.poll();
+            }
+            int worst = best.peek();
+            worstScore = candidates.scores[worst];
+            worstId = itemIds[candidates.ordinals[worst]];
+        }
+        List<Integer> ranked = new ArrayList<>(best);
+        ranked.sort(ranking);
+        List<Long> result = new ArrayList<>();
+        for (int i = offset; i < ranked.size(); i++) {
+            result.add(itemIds[candidates.ordinals[ranked.get(i)]]);
+        }
+        return result;
+    }
+
+    private void unindex(ItemDto item, int ordinal) {
+        for (String term : frequencies(item).keySet()) {
+            Postings termPostings = postings.get(term);
+            if (termPostings != null && termPostings.remove(ordinal) && termPostings.size == 0) {
+                dropTerm(term);
+            }
+        }
+        totalNameLength -= nameLengths[ordinal];
+        totalDescriptionLength -= descriptionLengths[ordinal];
+        nameLengths[ordinal] = 0;
+        descriptionLengths[ordinal] = 0;
+        available.clear(ordinal);
+    }
+
+    private static Map<String, Integer> frequencies(ItemDto item) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : TextAnalyzer.analyze(item.getName())) {
+            frequencies.merge(term, 1 << 16, Integer::sum);
+        }
+        for (String term : TextAnalyzer.analyze(item.getDescription())) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > itemIds.length) {
+            int length = Math.max(capacity, itemIds.length * 2);
+            itemIds = Arrays.copyOf(itemIds, length);
+            nameLengths = Arrays.copyOf(nameLengths, length);
+            descriptionLengths = Arrays.copyOf(descriptionLengths, length);
+        }
+    }
+
+    private static final class QueryTerm {
+        private final Postings postings;
+        private final int distance;
+
+        private QueryTerm(Postings postings, int distance) {
+            this.postings = postings;
+            this.distance = distance;
+        }
+    }
+
+    /**
+     * Items matched so far, in ordinal order, with their accumulated scores.
+     */
+    private static final class Candidates {
+        private final int[] ordinals;
+        private final float[] scores;
+        private int size;
+
+        private Candidates(int capacity) {
+            ordinals = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        private void add(int ordinal, float score) {
+            ordinals[size] = ordinal;
+            scores[size] = score;
+            size++;
+        }
+
+        private int countAbove(float bound) {
+            int count = 0;
+            for (int c = 0; c < size; c++) {
+                if (scores[c] > bound) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Ordinals in ascending order with name frequency in the high and description frequency in the low
+     * 16 bits of the matching entry.
+     */
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        private void add(int ordinal, int frequency) {
+            int position = size > 0 && ordinals[size - 1] >= ordinal
+                    ? Arrays.binarySearch(ordinals, 0, size, ordinal)
+                    : -size - 1;
+            if (position >= 0) {
+                frequencies[position] = frequency;
+                return;
+            }
+            position = -position - 1;
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(ordinals, position, ordinals, position + 1, size - position);
+            System.arraycopy(frequencies, position, frequencies, position + 1, size - position);
+            ordinals[position] = ordinal;
+            frequencies[position] = frequency;
+            size++;
+        }
+
+        private boolean remove(int ordinal) {
+            int position = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ordinals, position + 1, ordinals, position, size - position - 1);
+            System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+}
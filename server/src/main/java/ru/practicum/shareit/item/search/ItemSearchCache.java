@@ -0,0 +1,288 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.TransactionHooks;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded cache of search result pages keyed by normalized query, search mode and page. The bound is a
+ * weight in characters of the cached names and descriptions. Admission is frequency-based: a page that
+ * does not fit replaces least recently used pages only if its key has been asked for more often than
+ * each of them, as estimated by a {@link FrequencySketch}, so one-off queries cannot push hot ones out.
+ * A write of an item drops the pages of the queries the item matches before or after the write; pages
+ * of other queries stay. Ranked pages are not dropped when only the corpus statistics behind the scores
+ * shift. A zero weight disables caching.
+ */
+@Component
+public class ItemSearchCache {
+    private static final int ENTRY_OVERHEAD = 64;
+    private static final int SKETCH_WIDTH = 4096;
+
+    private final long maxWeight;
+    private final FrequencySketch sketch = new FrequencySketch(SKETCH_WIDTH);
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter rejections;
+    private final Counter invalidations;
+    private long weight;
+    private long version;
+
+    public enum Mode {
+        SUBSTRING, RANKED, FUZZY
+    }
+
+    public ItemSearchCache(MeterRegistry meterRegistry,
+                           @Value("${shareit.item.search.cache.max-weight:2000000}") long maxWeight) {
+        this.maxWeight = maxWeight;
+        this.hits = Counter.builder("shareit.item.search.cache.hits")
+                .description("Search pages served from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("shareit.item.search.cache.misses")
+                .description("Search pages loaded because they were not cached")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("shareit.item.search.cache.evictions")
+                .description("Cached search pages evicted to admit more frequent ones")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("shareit.item.search.cache.rejections")
+                .description("Loaded search pages not admitted as less frequent than the pages they would evict")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("shareit.item.search.cache.invalidations")
+                .description("Cached search pages dropped because a written item matches their query")
+                .register(meterRegistry);
+        Gauge.builder("shareit.item.search.cache.weight", this, cache -> cache.currentWeight())
+                .description("Characters held by the search cache")
+                .register(meterRegistry);
+    }
+
+    public List<ItemDto> get(String text, Mode mode, int from, int size, Supplier<List<ItemDto>> loader) {
+        if (maxWeight <= 0) {
+            return loader.get();
+        }
+        Key key = new Key(Query.of(text, mode), from, size);
+        long loadedAt;
+        synchronized (this) {
+            sketch.increment(key);
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits.increment();
+                return entry.items;
+            }
+            loadedAt = version;
+        }
+        misses.increment();
+        List<ItemDto> items = List.copyOf(loader.get());
+        synchronized (this) {
+            // a write may have invalidated the query while the page was loading
+            if (version == loadedAt) {
+                admit(key, items);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Drops pages that {@code before} or {@code after} matches; either may be null. Runs again after the
+     * transaction completes, since pages loaded concurrently may still show the old state.
+     */
+    public void invalidate(ItemDto before, ItemDto after) {
+        List<ItemDto> items = new ArrayList<>(2);
+        if (before != null) {
+            items.add(before);
+        }
+        if (after != null) {
+            items.add(after);
+        }
+        invalidateAll(items);
+    }
+
+    public void invalidateAll(Collection<? extends ItemDto> items) {
+        List<ItemDto> available = items.stream()
+                .filter(item -> Boolean.TRUE.equals(item.getAvailable()))
+                .collect(Collectors.toList());
+        if (maxWeight <= 0 || available.isEmpty()) {
+            return;
+        }
+        List<Document> documents = available.stream().map(Document::new).collect(Collectors.toList());
+        Runnable invalidation = () -> drop(documents);
+        invalidation.run();
+        TransactionHooks.afterCompletion(invalidation);
+    }
+
+    private synchronized long currentWeight() {
+        return weight;
+    }
+
+    private void admit(Key key, List<ItemDto> items) {
+        long entryWeight = ENTRY_OVERHEAD;
+        for (ItemDto item : items) {
+            entryWeight += length(item.getName()) + length(item.getDescription());
+        }
+        if (entryWeight > maxWeight) {
+            rejections.increment();
+            return;
+        }
+        int frequency = sketch.frequency(key);
+        List<Key> victims = new ArrayList<>();
+        long freed = 0;
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (weight - freed + entryWeight > maxWeight) {
+            Map.Entry<Key, Entry> victim = eldest.next();
+            if (sketch.frequency(victim.getKey()) >= frequency) {
+                rejections.increment();
+                return;
+            }
+            victims.add(victim.getKey());
+            freed += victim.getValue().weight;
+        }
+        victims.forEach(entries::remove);
+        evictions.increment(victims.size());
+        weight += entryWeight - freed;
+        entries.put(key, new Entry(items, entryWeight));
+    }
+
+    private synchronized void drop(List<Document> documents) {
+        version++;
+        Map<Query, Boolean> matches = new HashMap<>();
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> entry = iterator.next();
+            Query query = entry.getKey().query;
+            if (matches.computeIfAbsent(query, q -> documents.stream().anyMatch(q::matches))) {
+                weight -= entry.getValue().weight;
+                iterator.remove();
+                invalidations.increment();
+            }
+        }
+    }
+
+    private static int length(String text) {
+        return text == null ? 0 : text.length();
+    }
+
+    private static final class Entry {
+        private final List<ItemDto> items;
+        private final long weight;
+
+        private Entry(List<ItemDto> items, long weight) {
+            this.items = items;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Key {
+        private final Query query;
+        private final int from;
+        private final int size;
+
+        private Key(Query query, int from, int size) {
+            this.query = query;
+            this.from = from;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return from == key.from && size == key.size && query.equals(key.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, from, size);
+        }
+    }
+
+    /**
+     * Query text normalized the way the mode reads it: lower case for substring search, the set of analyzed
+     * terms for ranked and fuzzy search, so "Дрели" and "дрель" share pages.
+     */
+    private static final class Query {
+        private final Mode mode;
+        private final String text;
+        private final Set<String> terms;
+
+        private Query(Mode mode, String text, Set<String> terms) {
+            this.mode = mode;
+            this.text = text;
+            this.terms = terms;
+        }
+
+        private static Query of(String text, Mode mode) {
+            if (mode == Mode.SUBSTRING) {
+                return new Query(mode, text.toLowerCase(Locale.ROOT), Set.of());
+            }
+            Set<String> terms = new TreeSet<>(TextAnalyzer.analyze(text));
+            return new Query(mode, String.join(" ", terms), terms);
+        }
+
+        private boolean matches(Document document) {
+            switch (mode) {
+                case SUBSTRING:
+                    // SQL search reads % and _ as wildcards
+                    return text.indexOf('%') >= 0 || text.indexOf('_') >= 0
+                            || document.lowerName.contains(text) || document.lowerDescription.contains(text);
+                case RANKED:
+                    return terms.stream().anyMatch(document.terms::contains);
+                default:
+                    return terms.stream().anyMatch(term -> document.terms.stream().anyMatch(documentTerm ->
+                            BkTree.distance(term, documentTerm) <= FullTextIndex.maxEdits(term)));
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Query)) {
+                return false;
+            }
+            Query query = (Query) o;
+            return mode == query.mode && text.equals(query.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mode, text);
+        }
+    }
+
+    private static final class Document {
+        private final String lowerName;
+        private final String lowerDescription;
+        private final Set<String> terms;
+
+        private Document(ItemDto item) {
+            this.lowerName = TrigramIndex.normalize(item.getName());
+            this.lowerDescription = TrigramIndex.normalize(item.getDescription());
+            this.terms = new TreeSet<>(TextAnalyzer.analyze(item.getName()));
+            terms.addAll(TextAnalyzer.analyze(item.getDescription()));
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.common.TransactionHooks;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * In-process {@link TrigramIndex} and {@link FullTextIndex} of all items and {@link SuggestionTrie} of the
+ * names of available ones. They are loaded in id-ordered chunks on a background thread once the
+ * application is up; until then {@link #isReady()} is false and search stays on SQL. Writes arrive from
+ * the item service inside its transaction and are applied once it commits, so uncommitted items never
+ * show up in search. Items written while the indexes warm are remembered so the loader does not
+ * overwrite them with an older snapshot.
+ */
+@Component
+@Slf4j
+public class ItemSearchIndex {
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+    private final FullTextIndex fullTextIndex = new FullTextIndex();
+    private final SuggestionTrie suggestionTrie;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Set<Long> writtenWhileWarming = new HashSet<>();
+    private final CountDownLatch warmUpDone = new CountDownLatch(1);
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.item.search.index-enabled:true}") boolean enabled,
+                           @Value("${shareit.item.search.warm-up-batch-size:1000}") int batchSize,
+                           @Value("${shareit.item.suggest.max-limit:20}") int maxSuggestions) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.suggestionTrie = new SuggestionTrie(maxSuggestions);
+        Gauge.builder("shareit.item.search.index.size", this, searchIndex -> searchIndex.read(trigramIndex::size))
+                .description("Items held by the in-memory search index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmUp() {
+        if (!enabled) {
+            warmUpDone.countDown();
+            return;
+        }
+        Thread loader = new Thread(this::warmUp, "item-search-warm-up");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean awaitReady(Duration timeout) throws InterruptedException {
+        return warmUpDone.await(timeout.toMillis(), TimeUnit.MILLISECONDS) && ready;
+    }
+
+    public List<ItemDto> search(String text, int from, int size) {
+        return read(() -> trigramIndex.search(text, from, size));
+    }
+
+    public List<ItemDto> searchRanked(String text, boolean fuzzy, int from, int size) {
+        return read(() -> fullTextIndex.search(text, fuzzy, from, size).stream()
+                .map(trigramIndex::get)
+                .collect(Collectors.toList()));
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        return read(() -> suggestionTrie.suggest(prefix, limit));
+    }
+
+    public void add(ItemDto item) {
+        addAll(List.of(item));
+    }
+
+    public void addAll(Collection<? extends ItemDto> items) {
+        if (!enabled || items.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> write(() -> items.forEach(this::put)));
+    }
+
+    public void update(ItemDto item) {
+        if (!enabled) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> write(() -> put(item)));
+    }
+
+    public void remove(ItemDto item) {
+        removeAll(List.of(item));
+    }
+
+    public void removeAll(Collection<? extends ItemDto> items) {
+        if (!enabled || items.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> write(() -> items.forEach(item -> delete(item.getId()))));
+    }
+
+    private void warmUp() {
+        long started = System.nanoTime();
+        try {
+            long afterId = 0;
+            List<ItemDto> chunk;
+            do {
+                long chunkAfterId = afterId;
+                chunk = transactionTemplate.execute(status ->
+                        itemRepository.findAllAfter(chunkAfterId, PageRequest.of(0, batchSize)));
+                List<ItemDto> loaded = chunk;
+                write(() -> loaded.stream()
+                        .filter(item -> !writtenWhileWarming.contains(item.getId()))
+                        .forEach(this::index));
+                if (!chunk.isEmpty()) {
+                    afterId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == batchSize);
+            write(() -> {
+                writtenWhileWarming.clear();
+                ready = true;
+            });
+            log.info("item search index loaded {} items in {} ms", read(trigramIndex::size),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException e) {
+            log.warn("item search index warm-up failed, search stays on SQL", e);
+        } finally {
+            warmUpDone.countDown();
+        }
+    }
+
+    private void put(ItemDto item) {
+        index(item);
+        if (!ready) {
+            writtenWhileWarming.add(item.getId());
+        }
+    }
+
+    private void delete(Long itemId) {
+        ItemDto previous = trigramIndex.get(itemId);
+        if (previous != null) {
+            unsuggest(previous);
+            fullTextIndex.remove(previous);
+            trigramIndex.remove(itemId);
+        }
+        if (!ready) {
+            writtenWhileWarming.add(itemId);
+        }
+    }
+
+    private void index(ItemDto item) {
+        ItemDto previous = trigramIndex.get(item.getId());
+        if (previous != null) {
+            unsuggest(previous);
+        }
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            suggestionTrie.add(item.getName());
+        }
+        fullTextIndex.put(item, previous);
+        trigramIndex.put(item);
+    }
+
+    private void unsuggest(ItemDto item) {
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            suggestionTrie.remove(item.getName());
+        }
+    }
+
+    private <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
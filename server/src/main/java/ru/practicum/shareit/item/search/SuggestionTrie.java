@@ -0,0 +1,284 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Trie of item names for prefix autocomplete. A name is reachable from the start of each of its words, so
+ * "дре" suggests both "Дрель" and "Ударная дрель". Popularity of a name is the number of available items
+ * carrying it; every node keeps the {@code k} most popular names below it, so a lookup walks the prefix and
+ * copies that list. A change of popularity re-selects the lists along the paths of the name only. Names
+ * are compared case-insensitively with "ё" folded into "е"; the first spelling seen is the one suggested.
+ * Not thread-safe.
+ */
+public class SuggestionTrie {
+    private static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+    private static final Comparator<Suggestion> BY_POPULARITY = Comparator
+            .comparingInt((Suggestion suggestion) -> -suggestion.count)
+            .thenComparing(suggestion -> suggestion.key);
+
+    private final int k;
+    private final Map<String, Suggestion> suggestions = new HashMap<>();
+    private final Node root = new Node();
+
+    public SuggestionTrie(int k) {
+        this.k = k;
+    }
+
+    public int size() {
+        return suggestions.size();
+    }
+
+    /**
+     * Counts one more available item named {@code name}.
+     */
+    public void add(String name) {
+        String key = normalize(name).strip();
+        if (key.isEmpty()) {
+            return;
+        }
+        Suggestion suggestion = suggestions.get(key);
+        boolean created = suggestion == null;
+        if (created) {
+            suggestion = new Suggestion(key, name.strip());
+            suggestions.put(key, suggestion);
+        }
+        suggestion.count++;
+        for (int start : wordStarts(key)) {
+            List<Node> path = path(key, start, true);
+            if (created) {
+                path.get(path.size() - 1).addEnd(suggestion);
+            }
+            promote(path, suggestion);
+        }
+    }
+
+    /**
+     * Counts one available item named {@code name} less; the name is dropped when no item carries it.
+     */
+    public void remove(String name) {
+        String key = normalize(name).strip();
+        Suggestion suggestion = suggestions.get(key);
+        if (suggestion == null) {
+            return;
+        }
+        boolean dropped = --suggestion.count == 0;
+        if (dropped) {
+            suggestions.remove(key);
+        }
+        for (int start : wordStarts(key)) {
+            List<Node> path = path(key, start, false);
+            if (dropped) {
+                path.get(path.size() - 1).removeEnd(suggestion);
+                prune(key, start, path);
+            }
+            demote(path, suggestion);
+        }
+    }
+
+    /**
+     * @return up to {@code limit} names with a word starting with {@code prefix}, most popular first
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix).stripLeading();
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        List<String> result = new ArrayList<>();
+        if (node == null || key.isEmpty()) {
+            return result;
+        }
+        for (int i = 0; i < node.top.length && i < limit; i++) {
+            result.add(node.top[i].name);
+        }
+        return result;
+    }
+
+    private List<Node> path(String key, int start, boolean create) {
+        List<Node> path = new ArrayList<>(key.length() - start + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = start; i < key.length(); i++) {
+            Node child = node.child(key.charAt(i));
+            if (child == null && create) {
+                child = node.addChild(key.charAt(i));
+            }
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+
+    private void prune(String key, int start, List<Node> path) {
+        for (int i = path.size() - 1; i > 0 && path.get(i).isEmpty(); i--) {
+            path.get(i - 1).removeChild(key.charAt(start + i - 1));
+            path.remove(i);
+        }
+    }
+
+    /**
+     * Moves a name that gained popularity up the lists along its path. Lists above a node whose list it
+     * does not make cannot take it either, as they choose from a superset, so the walk stops there.
+     */
+    private void promote(List<Node> path, Suggestion suggestion) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            Suggestion[] top = node.top;
+            int position = Arrays.asList(top).indexOf(suggestion);
+            if (position < 0) {
+                if (top.length < k) {
+                    top = Arrays.copyOf(top, top.length + 1);
+                } else if (BY_POPULARITY.compare(suggestion, top[top.length - 1]) >= 0) {
+                    return;
+                }
+                position = top.length - 1;
+            }
+            for (; position > 0 && BY_POPULARITY.compare(suggestion, top[position - 1]) < 0; position--) {
+                top[position] = top[position - 1];
+            }
+            top[position] = suggestion;
+            node.top = top;
+        }
+    }
+
+    /**
+     * Re-selects the lists along the path of a name that lost popularity. Only lists holding the name can
+     * change, and those form the lower part of the path.
+     */
+    private void demote(List<Node> path, Suggestion suggestion) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            if (!Arrays.asList(node.top).contains(suggestion)) {
+                return;
+            }
+            node.top = merge(node);
+        }
+    }
+
+    /**
+     * Merges the names ending at the node with the lists of its children, which are already sorted.
+     */
+    private Suggestion[] merge(Node node) {
+        List<Suggestion> ends = new ArrayList<>(node.ends);
+        ends.sort(BY_POPULARITY);
+        int endPosition = 0;
+        int[] positions = new int[node.children.length];
+        List<Suggestion> top = new ArrayList<>(k);
+        while (top.size() < k) {
+            Suggestion best = endPosition < ends.size() ? ends.get(endPosition) : null;
+            int bestChild = -1;
+            for (int c = 0; c < node.children.length; c++) {
+                Suggestion[] childTop = node.children[c].top;
+                if (positions[c] < childTop.length
+                        && (best == null || BY_POPULARITY.compare(childTop[positions[c]], best) < 0)) {
+                    best = childTop[positions[c]];
+                    bestChild = c;
+                }
+            }
+            if (best == null) {
+                break;
+            }
+            if (bestChild < 0) {
+                endPosition++;
+            } else {
+                positions[bestChild]++;
+            }
+            // a name reachable from several of its words comes up once per word, and the copies are adjacent
+            if (top.isEmpty() || top.get(top.size() - 1) != best) {
+                top.add(best);
+            }
+        }
+        return top.toArray(NO_SUGGESTIONS);
+    }
+
+    private static List<Integer> wordStarts(String key) {
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < key.length(); i++) {
+            if (Character.isLetterOrDigit(key.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(key.charAt(i - 1)))) {
+                starts.add(i);
+            }
+        }
+        return starts;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).replace('ё', 'е').replaceAll("\\s+", " ");
+    }
+
+    private static final class Suggestion {
+        private final String key;
+        private final String name;
+        private int count;
+
+        private Suggestion(String key, String name) {
+            this.key = key;
+            this.name = name;
+        }
+    }
+
+    private static final class Node {
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private List<Suggestion> ends = List.of();
+        private Suggestion[] top = NO_SUGGESTIONS;
+
+        private Node child(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            return position >= 0 ? children[position] : null;
+        }
+
+        private Node addChild(char label) {
+            int position = -Arrays.binarySearch(labels, label) - 1;
+            Node child = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            newLabels[position] = label;
+            newChildren[position] = child;
+            System.arraycopy(labels, position, newLabels, position + 1, labels.length - position);
+            System.arraycopy(children, position, newChildren, position + 1, children.length - position);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            System.arraycopy(labels, position + 1, newLabels, position, labels.length - position - 1);
+            System.arraycopy(children, position + 1, newChildren, position, children.length - position - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        private void addEnd(Suggestion suggestion) {
+            List<Suggestion> newEnds = new ArrayList<>(ends);
+            newEnds.add(suggestion);
+            ends = newEnds;
+        }
+
+        private void removeEnd(Suggestion suggestion) {
+            List<Suggestion> newEnds = new ArrayList<>(ends);
+            newEnds.remove(suggestion);
+            ends = newEnds.isEmpty() ? List.of() : newEnds;
+        }
+
+        private boolean isEmpty() {
+            return ends.isEmpty() && children.length == 0;
+        }
+    }
+}
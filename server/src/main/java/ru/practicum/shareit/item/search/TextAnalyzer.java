@@ -0,0 +1,186 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits text into letter and digit runs, lower-cases them, folds "ё" into "е", drops stop words and
+ * stems what is left: Cyrillic words with the Snowball Russian algorithm, Latin words with a light
+ * English suffix stripper. "Дрель" and "дрели" both become "дрел", "drills" becomes "drill".
+ */
+public final class TextAnalyzer {
+    private static final Set<String> STOP_WORDS = Set.of(
+            "и", "в", "во", "на", "с", "со", "к", "ко", "по", "для", "из", "от", "до", "за", "о", "об", "у",
+            "не", "а", "но", "или", "же", "то", "это",
+            "a", "an", "and", "or", "the", "of", "for", "to", "in", "on", "with", "at", "by", "is");
+
+    private static final String[] PERFECTIVE_GERUND_1 = {"вшись", "вши", "в"};
+    private static final String[] PERFECTIVE_GERUND_2 = {"ившись", "ывшись", "ивши", "ывши", "ив", "ыв"};
+    private static final String[] REFLEXIVE = {"ся", "сь"};
+    private static final String[] ADJECTIVE = {"ими", "ыми", "его", "ого", "ему", "ому", "ее", "ие", "ые", "ое",
+            "ей", "ий", "ый", "ой", "ем", "им", "ым", "ом", "их", "ых", "ую", "юю", "ая", "яя", "ою", "ею"};
+    private static final String[] PARTICIPLE_1 = {"ем", "нн", "вш", "ющ", "щ"};
+    private static final String[] PARTICIPLE_2 = {"ивш", "ывш", "ующ"};
+    private static final String[] VERB_1 = {"ете", "йте", "ешь", "нно", "ла", "на", "ли", "ем", "ло", "но", "ет",
+            "ют", "ны", "ть", "й", "л", "н"};
+    private static final String[] VERB_2 = {"ейте", "уйте", "ила", "ыла", "ена", "ите", "или", "ыли", "ило", "ыло",
+            "ено", "ует", "уют", "ены", "ить", "ыть", "ишь", "ей", "уй", "ил", "ыл", "им", "ым", "ен", "ят", "ит",
+            "ыт", "ую", "ю"};
+    private static final String[] NOUN = {"иями", "ями", "ами", "ией", "иям", "ием", "иях", "ев", "ов", "ие", "ье",
+            "еи", "ии", "ей", "ой", "ий", "ям", "ем", "ам", "ом", "ах", "ях", "ию", "ью", "ия", "ья", "а", "е", "и",
+            "й", "о", "у", "ы", "ь", "ю", "я"};
+    private static final String[] SUPERLATIVE = {"ейше", "ейш"};
+    private static final String[] DERIVATIONAL = {"ость", "ост"};
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean inToken = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (inToken && start < 0) {
+                start = i;
+            } else if (!inToken && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    terms.add(stem(token));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    static String stem(String token) {
+        if (isCyrillic(token.charAt(0))) {
+            return stemRussian(token);
+        }
+        if (token.charAt(0) >= 'a' && token.charAt(0) <= 'z') {
+            return stemEnglish(token);
+        }
+        return token;
+    }
+
+    private static String stemRussian(String word) {
+        int rv = regionAfterVowel(word, 0);
+        if (rv >= word.length()) {
+            return word;
+        }
+        int r1 = regionAfterConsonant(word, 0);
+        int r2 = regionAfterConsonant(word, r1);
+        StringBuilder stem = new StringBuilder(word);
+
+        if (!removeAfterAOrYa(stem, PERFECTIVE_GERUND_1, rv) && !remove(stem, PERFECTIVE_GERUND_2, rv)) {
+            remove(stem, REFLEXIVE, rv);
+            if (remove(stem, ADJECTIVE, rv)) {
+                if (!removeAfterAOrYa(stem, PARTICIPLE_1, rv)) {
+                    remove(stem, PARTICIPLE_2, rv);
+                }
+            } else if (!removeAfterAOrYa(stem, VERB_1, rv) && !remove(stem, VERB_2, rv)) {
+                remove(stem, NOUN, rv);
+            }
+        }
+        remove(stem, new String[]{"и"}, rv);
+        remove(stem, DERIVATIONAL, r2);
+        if (endsWith(stem, "нн", rv)) {
+            stem.setLength(stem.length() - 1);
+        } else if (remove(stem, SUPERLATIVE, rv)) {
+            if (endsWith(stem, "нн", rv)) {
+                stem.setLength(stem.length() - 1);
+            }
+        } else {
+            remove(stem, new String[]{"ь"}, rv);
+        }
+        return stem.toString();
+    }
+
+    private static String stemEnglish(String word) {
+        if (word.length() <= 3) {
+            return word;
+        }
+        if (word.endsWith("'s")) {
+            word = word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("ies") && word.length() > 4) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("sses")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us")) {
+            word = word.substring(0, word.length() - 1);
+        }
+        for (String suffix : new String[]{"ing", "ed", "ly"}) {
+            if (word.endsWith(suffix) && word.length() - suffix.length() >= 3) {
+                word = word.substring(0, word.length() - suffix.length());
+                if (word.length() > 3 && word.charAt(word.length() - 1) == word.charAt(word.length() - 2)
+                        && "lsz".indexOf(word.charAt(word.length() - 1)) < 0) {
+                    word = word.substring(0, word.length() - 1);
+                }
+                break;
+            }
+        }
+        return word;
+    }
+
+    private static boolean remove(StringBuilder stem, String[] endings, int region) {
+        for (String ending : endings) {
+            if (endsWith(stem, ending, region)) {
+                stem.setLength(stem.length() - ending.length());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean removeAfterAOrYa(StringBuilder stem, String[] endings, int region) {
+        for (String ending : endings) {
+            int before = stem.length() - ending.length() - 1;
+            if (endsWith(stem, ending, region) && before >= region
+                    && (stem.charAt(before) == 'а' || stem.charAt(before) == 'я')) {
+                stem.setLength(stem.length() - ending.length());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean endsWith(StringBuilder stem, String ending, int region) {
+        int start = stem.length() - ending.length();
+        return start >= region && stem.indexOf(ending, start) == start;
+    }
+
+    private static int regionAfterVowel(String word, int from) {
+        for (int i = from; i < word.length(); i++) {
+            if (isRussianVowel(word.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+
+    private static int regionAfterConsonant(String word, int from) {
+        for (int i = from + 1; i < word.length(); i++) {
+            if (!isRussianVowel(word.charAt(i)) && isRussianVowel(word.charAt(i - 1))) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+
+    private static boolean isRussianVowel(char c) {
+        return "аеиоуыэюя".indexOf(c) >= 0;
+    }
+
+    private static boolean isCyrillic(char c) {
+        return c >= 'а' && c <= 'я';
+    }
+}
@@ -0,0 +1,192 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Inverted index over item name and description. Every distinct trigram of the lower-cased text keeps
+ * a sorted posting list of item ids; a query is answered by intersecting the postings of its trigrams
+ * with the postings of available items and checking the survivors with {@link String#contains}, which
+ * gives the same matches as {@code lower(name) like '%text%' or lower(description) like '%text%'}.
+ * Results come in id order. Not thread-safe.
+ */
+public class TrigramIndex {
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Postings availableIds = new Postings();
+
+    public int size() {
+        return documents.size();
+    }
+
+    public ItemDto get(Long itemId) {
+        Document document = documents.get(itemId);
+        return document == null ? null : document.toDto();
+    }
+
+    public void put(ItemDto item) {
+        remove(item.getId());
+        Document document = new Document(item);
+        documents.put(item.getId(), document);
+        for (long trigram : document.trigrams()) {
+            postings.computeIfAbsent(trigram, key -> new Postings()).add(item.getId());
+        }
+        if (document.available) {
+            availableIds.add(item.getId());
+        }
+    }
+
+    public void remove(Long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (long trigram : document.trigrams()) {
+            Postings itemIds = postings.get(trigram);
+            if (itemIds != null && itemIds.remove(itemId) && itemIds.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+        availableIds.remove(itemId);
+    }
+
+    public List<ItemDto> search(String text, int offset, int limit) {
+        String needle = normalize(text);
+        List<Postings> lists = new ArrayList<>();
+        lists.add(availableIds);
+        for (long trigram : trigrams(needle)) {
+            Postings itemIds = postings.get(trigram);
+            if (itemIds == null) {
+                return new ArrayList<>();
+            }
+            lists.add(itemIds);
+        }
+        lists.sort(Comparator.comparingInt(itemIds -> itemIds.size));
+        Postings smallest = lists.get(0);
+        int[] cursors = new int[lists.size()];
+        List<ItemDto> result = new ArrayList<>();
+        int skipped = 0;
+        for (int i = 0; i < smallest.size && result.size() < limit; i++) {
+            long itemId = smallest.ids[i];
+            if (!inAll(lists, cursors, itemId)) {
+                continue;
+            }
+            Document document = documents.get(itemId);
+            if (!document.matches(needle)) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            result.add(document.toDto());
+        }
+        return result;
+    }
+
+    private static boolean inAll(List<Postings> lists, int[] cursors, long itemId) {
+        for (int j = 1; j < lists.size(); j++) {
+            Postings other = lists.get(j);
+            int position = Arrays.binarySearch(other.ids, cursors[j], other.size, itemId);
+            if (position < 0) {
+                cursors[j] = -position - 1;
+                return false;
+            }
+            cursors[j] = position + 1;
+        }
+        return true;
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    static Set<Long> trigrams(String text) {
+        Set<Long> result = new TreeSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            result.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return result;
+    }
+
+    private static final class Document {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final boolean available;
+        private final Long requestId;
+        private final Integer commentCount;
+        private final String lowerName;
+        private final String lowerDescription;
+
+        private Document(ItemDto item) {
+            this.id = item.getId();
+            this.name = item.getName();
+            this.description = item.getDescription();
+            this.available = Boolean.TRUE.equals(item.getAvailable());
+            this.requestId = item.getRequestId();
+            this.commentCount = item.getCommentCount();
+            this.lowerName = normalize(name);
+            this.lowerDescription = normalize(description);
+        }
+
+        private Set<Long> trigrams() {
+            Set<Long> result = TrigramIndex.trigrams(lowerName);
+            result.addAll(TrigramIndex.trigrams(lowerDescription));
+            return result;
+        }
+
+        private boolean matches(String needle) {
+            return lowerName.contains(needle) || lowerDescription.contains(needle);
+        }
+
+        private ItemDto toDto() {
+            return new ItemDto(id, name, description, available, requestId, commentCount);
+        }
+    }
+
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long itemId) {
+            if (size > 0 && ids[size - 1] >= itemId) {
+                int position = Arrays.binarySearch(ids, 0, size, itemId);
+                if (position >= 0) {
+                    return;
+                }
+                insertAt(-position - 1, itemId);
+                return;
+            }
+            insertAt(size, itemId);
+        }
+
+        private boolean remove(long itemId) {
+            int position = Arrays.binarySearch(ids, 0, size, itemId);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        private void insertAt(int position, long itemId) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = itemId;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.TransactionHooks;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Free slots of items per requested window, for at most the configured number of least recently
+ * queried items and {@value #MAX_WINDOWS_PER_ITEM} windows each; a zero size disables caching.
+ */
+@Component
+public class ItemAvailabilityCache {
+    private static final int MAX_WINDOWS_PER_ITEM = 32;
+
+    private final int maxItems;
+    private final Map<Long, Map<Window, List<FreeSlotDto>>> cache;
+    private long version;
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Window {
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+    }
+
+    public ItemAvailabilityCache(@Value("${shareit.item.availability-cache.max-items:10000}") int maxItems) {
+        this.maxItems = maxItems;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Map<Window, List<FreeSlotDto>>> eldest) {
+                return size() > maxItems;
+            }
+        };
+    }
+
+    public List<FreeSlotDto> get(Long itemId, LocalDateTime from, LocalDateTime to, Supplier<List<FreeSlotDto>> loader) {
+        if (maxItems <= 0) {
+            return loader.get();
+        }
+        Window window = new Window(from, to);
+        long loadedAt;
+        synchronized (this) {
+            Map<Window, List<FreeSlotDto>> windows = cache.get(itemId);
+            List<FreeSlotDto> slots = windows == null ? null : windows.get(window);
+            if (slots != null) {
+                return slots;
+            }
+            loadedAt = version;
+        }
+        List<FreeSlotDto> slots = List.copyOf(loader.get());
+        synchronized (this) {
+            // a booking written while the slots were computed may not be in them
+            if (version == loadedAt) {
+                Map<Window, List<FreeSlotDto>> windows = cache.computeIfAbsent(itemId, id -> new HashMap<>());
+                if (windows.size() >= MAX_WINDOWS_PER_ITEM) {
+                    windows.clear();
+                }
+                windows.put(window, slots);
+            }
+        }
+        return slots;
+    }
+
+    public void evict(Long itemId) {
+        Runnable eviction = () -> {
+            synchronized (this) {
+                version++;
+                cache.remove(itemId);
+            }
+        };
+        eviction.run();
+        TransactionHooks.afterRollback(eviction);
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Walks every item and recounts the comments of items whose denormalized count drifted from the
+ * comments table (comments removed with their authors, increments lost to failures after the
+ * comment was saved), then refreshes the search index and caches that show the count.
+ */
+@Component
+@Slf4j
+public class ItemCommentCountReconciler {
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSearchCache searchCache;
+    private final ItemDetailCache detailCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter repaired;
+
+    public ItemCommentCountReconciler(ItemRepository itemRepository,
+                                      ItemSearchIndex searchIndex,
+                                      ItemSearchCache searchCache,
+                                      ItemDetailCache detailCache,
+                                      TransactionTemplate transactionTemplate,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${shareit.item.comment-count.batch-size:500}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.searchIndex = searchIndex;
+        this.searchCache = searchCache;
+        this.detailCache = detailCache;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.repaired = Counter.builder("shareit.item.comment-count.repaired")
+                .description("Items whose comment count was found out of date by reconciliation")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${shareit.item.comment-count.reconcile-initial-delay:PT15S}",
+            fixedDelayString = "${shareit.item.comment-count.reconcile-interval:PT6H}")
+    public void reconcileScheduled() {
+        reconcile();
+    }
+
+    public int reconcile() {
+        int changed = 0;
+        long afterId = 0;
+        PageRequest page = PageRequest.of(0, batchSize);
+        List<Long> itemIds;
+        do {
+            long chunkAfterId = afterId;
+            itemIds = transactionTemplate.execute(status -> itemRepository.findIdsAfter(chunkAfterId, page));
+            if (itemIds.isEmpty()) {
+                break;
+            }
+            List<Long> chunk = itemIds;
+            changed += transactionTemplate.execute(status -> repair(chunk));
+            afterId = itemIds.get(itemIds.size() - 1);
+        } while (itemIds.size() == batchSize);
+        repaired.increment(changed);
+        if (changed > 0) {
+            log.warn("repaired comment counts of {} items", changed);
+        }
+        return changed;
+    }
+
+    private int repair(List<Long> itemIds) {
+        List<ItemDto> before = itemRepository.findAllWithCommentCountDriftIn(itemIds);
+        if (before.isEmpty()) {
+            return 0;
+        }
+        Set<Long> ids = before.stream().map(ItemDto::getId).collect(Collectors.toSet());
+        itemRepository.recountComments(ids);
+        List<ItemDto> after = itemRepository.findAllByIdInOrderById(ids);
+        for (ItemDto item : after) {
+            searchIndex.update(item);
+            detailCache.evict(item.getId());
+        }
+        searchCache.invalidateAll(after);
+        return after.size();
+    }
+}
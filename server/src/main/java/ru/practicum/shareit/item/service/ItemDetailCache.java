@@ -0,0 +1,204 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingForItemDto;
+import ru.practicum.shareit.common.TransactionHooks;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of item pages. The view every user sees, the item with its comments, is kept per
+ * item id in a bounded least-recently-used map and dropped by writes to the item or its comments. The
+ * last and next bookings shown to the owner depend on the clock as well, so they live in a separate map
+ * whose entries expire after a short TTL even without writes. That map is kept in load order, so expired
+ * entries are dropped from its head as new ones come in, and is bounded by the same size. A zero size
+ * or TTL disables the respective part.
+ */
+@Component
+public class ItemDetailCache {
+    private final int maxSize;
+    private final long bookingsTtlNanos;
+    private final Map<Long, Detail> details;
+    private final Map<Long, BookingsEntry> bookings = new LinkedHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer hitTimer;
+    private final Timer missTimer;
+    private long version;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Detail {
+        private final Long ownerId;
+        private final ItemBookingDto view;
+
+        /**
+         * @return a copy of the view that the caller may complete with bookings
+         */
+        public ItemBookingDto copyView() {
+            ItemBookingDto copy = new ItemBookingDto(view.getId(), view.getName(), view.getDescription(),
+                    view.getAvailable(), view.getRequestId(), view.getCommentCount());
+            copy.setComments(new ArrayList<>(view.getComments()));
+            return copy;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Bookings {
+        private final BookingForItemDto lastBooking;
+        private final BookingForItemDto nextBooking;
+    }
+
+    private static final class BookingsEntry {
+        private final Bookings bookings;
+        private final long expiresAt;
+
+        private BookingsEntry(Bookings bookings, long expiresAt) {
+            this.bookings = bookings;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public ItemDetailCache(MeterRegistry meterRegistry,
+                           @Value("${shareit.item.detail-cache.max-size:10000}") int maxSize,
+                           @Value("${shareit.item.detail-cache.bookings-ttl:5s}") Duration bookingsTtl) {
+        this.maxSize = maxSize;
+        this.bookingsTtlNanos = bookingsTtl.toNanos();
+        this.details = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Detail> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.hits = Counter.builder("shareit.item.detail.cache.hits")
+                .description("Item pages served from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("shareit.item.detail.cache.misses")
+                .description("Item pages loaded from the database")
+                .register(meterRegistry);
+        this.hitTimer = Timer.builder("shareit.item.detail.view")
+                .description("Time to build the shared view of an item page")
+                .tag("cache", "hit")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.missTimer = Timer.builder("shareit.item.detail.view")
+                .description("Time to build the shared view of an item page")
+                .tag("cache", "miss")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public Detail getDetail(Long itemId, Supplier<Detail> loader) {
+        if (maxSize <= 0) {
+            return loader.get();
+        }
+        long started = System.nanoTime();
+        long loadedAt;
+        synchronized (this) {
+            Detail detail = details.get(itemId);
+            if (detail != null) {
+                hits.increment();
+                hitTimer.record(Duration.ofNanos(System.nanoTime() - started));
+                return detail;
+            }
+            loadedAt = version;
+        }
+        misses.increment();
+        Detail detail = loader.get();
+        synchronized (this) {
+            // an eviction while the page was loading may mean it already shows an old state
+            if (version == loadedAt) {
+                details.put(itemId, detail);
+            }
+        }
+        missTimer.record(Duration.ofNanos(System.nanoTime() - started));
+        return detail;
+    }
+
+    public Bookings getBookings(Long itemId, Supplier<Bookings> loader) {
+        if (bookingsTtlNanos <= 0) {
+            return loader.get();
+        }
+        long now = System.nanoTime();
+        synchronized (bookings) {
+            BookingsEntry entry = bookings.get(itemId);
+            if (entry != null && entry.expiresAt - now > 0) {
+                return entry.bookings;
+            }
+        }
+        Bookings loaded = loader.get();
+        synchronized (bookings) {
+            // re-inserted at the tail, so that the head holds the entries that expire first
+            bookings.remove(itemId);
+            bookings.put(itemId, new BookingsEntry(loaded, now + bookingsTtlNanos));
+            purgeBookings(now);
+        }
+        return loaded;
+    }
+
+    public void evict(Long itemId) {
+        Runnable eviction = () -> {
+            synchronized (this) {
+                version++;
+                details.remove(itemId);
+            }
+            synchronized (bookings) {
+                bookings.remove(itemId);
+            }
+        };
+        eviction.run();
+        TransactionHooks.afterCompletion(eviction);
+    }
+
+    public void evictBookings(Collection<Long> itemIds) {
+        Runnable eviction = () -> {
+            synchronized (bookings) {
+                itemIds.forEach(bookings::remove);
+            }
+        };
+        eviction.run();
+        TransactionHooks.afterCompletion(eviction);
+    }
+
+    /**
+     * Drops every page, for writes that may show on many of them, like a renamed comment author.
+     */
+    public void evictAll() {
+        Runnable eviction = () -> {
+            synchronized (this) {
+                version++;
+                details.clear();
+            }
+            synchronized (bookings) {
+                bookings.clear();
+            }
+        };
+        eviction.run();
+        TransactionHooks.afterCompletion(eviction);
+    }
+
+    private void purgeBookings(long now) {
+        Iterator<BookingsEntry> entries = bookings.values().iterator();
+        while (entries.hasNext()) {
+            BookingsEntry entry = entries.next();
+            if (entry.expiresAt - now > 0 && (maxSize <= 0 || bookings.size() <= maxSize)) {
+                break;
+            }
+            entries.remove();
+        }
+    }
+}
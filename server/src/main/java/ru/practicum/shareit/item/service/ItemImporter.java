@@ -0,0 +1,172 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.EntityNotExistException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.constraints.Size;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates items of one owner in bulk. Rows are inserted in chunks, each in its own transaction with
+ * batched inserts, so a large import neither holds one long transaction nor keeps every entity in the
+ * persistence context. Invalid rows are reported by their 1-based position and skipped; the rest of
+ * their chunk is still inserted.
+ */
+@Component
+@Slf4j
+public class ItemImporter {
+    private static final List<String> FIELDS = List.of("name", "description", "available");
+    // a blank name longer than the limit reports the missing name, as a blank one does
+    private static final Comparator<ConstraintViolation<ItemDto>> BY_FIELD_ORDER = Comparator
+            .comparingInt((ConstraintViolation<ItemDto> v) -> FIELDS.indexOf(v.getPropertyPath().toString()))
+            .thenComparing(v -> v.getConstraintDescriptor().getAnnotation() instanceof Size);
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ItemRequestRepository requestRepository;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSearchCache searchCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int chunkSize;
+    private final Counter imported;
+    private final Counter failed;
+
+    public ItemImporter(ItemRepository itemRepository,
+                        UserRepository userRepository,
+                        ItemRequestRepository requestRepository,
+                        ItemSearchIndex searchIndex,
+                        ItemSearchCache searchCache,
+                        TransactionTemplate transactionTemplate,
+                        Validator validator,
+                        MeterRegistry meterRegistry,
+                        @Value("${shareit.item.import.chunk-size:500}") int chunkSize) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.requestRepository = requestRepository;
+        this.searchIndex = searchIndex;
+        this.searchCache = searchCache;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.imported = Counter.builder("shareit.item.import.rows")
+                .description("Rows of bulk item imports")
+                .tag("result", "imported")
+                .register(meterRegistry);
+        this.failed = Counter.builder("shareit.item.import.rows")
+                .description("Rows of bulk item imports")
+                .tag("result", "failed")
+                .register(meterRegistry);
+    }
+
+    public ItemImportReportDto importItems(Long userId, List<ItemDto> items) {
+        log.info("importItems: {} rows, userId={}", items.size(), userId);
+        if (!userRepository.existsById(userId)) {
+            log.warn("user with id={} not exist", userId);
+            throw new EntityNotExistException(String.format("Пользователь с id=%d не существует.", userId));
+        }
+        ItemImportReportDto report = new ItemImportReportDto();
+        report.setReceived(items.size());
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            importChunk(userId, items.subList(from, Math.min(from + chunkSize, items.size())), from, report);
+        }
+        imported.increment(report.getImported());
+        failed.increment(report.getFailed());
+        return report;
+    }
+
+    private void importChunk(Long userId, List<ItemDto> chunk, int offset, ItemImportReportDto report) {
+        List<ItemImportErrorDto> errors = new ArrayList<>();
+        List<Long> rows = new ArrayList<>();
+        try {
+            int created = transactionTemplate.execute(status -> insert(userId, chunk, offset, errors, rows));
+            report.setImported(report.getImported() + created);
+        } catch (DataAccessException e) {
+            log.warn("import of rows {}..{} failed", offset + 1, offset + chunk.size(), e);
+            rows.forEach(row -> errors.add(new ItemImportErrorDto(row, "Не удалось сохранить вещь.")));
+        }
+        errors.sort((first, second) -> Long.compare(first.getRow(), second.getRow()));
+        report.setFailed(report.getFailed() + errors.size());
+        report.getErrors().addAll(errors);
+    }
+
+    private int insert(Long userId, List<ItemDto> chunk, int offset, List<ItemImportErrorDto> errors, List<Long> rows) {
+        List<Long> requestIds = chunk.stream()
+                .filter(Objects::nonNull)
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, ItemRequest> requests = requestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        User owner = userRepository.getReferenceById(userId);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            long row = offset + i + 1;
+            ItemDto itemDto = chunk.get(i);
+            String error = validate(itemDto, requests);
+            if (error != null) {
+                errors.add(new ItemImportErrorDto(row, error));
+                continue;
+            }
+            Item item = ItemMapper.INSTANCE.itemDtoToItem(itemDto);
+            item.setId(null);
+            item.setOwner(owner);
+            item.setRequest(itemDto.getRequestId() == null ? null : requests.get(itemDto.getRequestId()));
+            items.add(item);
+            rows.add(row);
+        }
+        List<ItemDto> created = itemRepository.saveAll(items).stream()
+                .map(ItemMapper.INSTANCE::itemToItemDto)
+                .collect(Collectors.toList());
+        itemRepository.flush();
+        searchIndex.addAll(created);
+        searchCache.invalidateAll(created);
+        return created.size();
+    }
+
+    /**
+     * @return the message of the first violated {@link ItemDto} constraint, or of a missing request
+     */
+    private String validate(ItemDto itemDto, Map<Long, ItemRequest> requests) {
+        if (itemDto == null) {
+            return "Пустая строка.";
+        }
+        Optional<ConstraintViolation<ItemDto>> violation = validator.validate(itemDto).stream()
+                .min(BY_FIELD_ORDER);
+        if (violation.isPresent()) {
+            return violation.get().getMessage();
+        }
+        if (itemDto.getRequestId() != null && !requests.containsKey(itemDto.getRequestId())) {
+            return String.format("Запрос с id=%d не существует.", itemDto.getRequestId());
+        }
+        return null;
+    }
+}
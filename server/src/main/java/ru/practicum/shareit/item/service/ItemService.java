@@ -1,9 +1,11 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -17,7 +19,13 @@ public interface ItemService {
 
     CommentDto createComment(Long userId, Long itemId, CommentDto commentDto);
 
+    List<CommentDto> getItemComments(Long itemId, Long after, Integer limit);
+
     List<ItemBookingDto> getUserItems(Long userId, Integer from, Integer size);
 
-    List<ItemDto> searchItem(String text, Integer from, Integer size);
+    List<ItemDto> searchItem(String text, Boolean ranked, Boolean fuzzy, Integer from, Integer size);
+
+    List<String> suggestItemNames(String prefix, Integer limit);
+
+    List<FreeSlotDto> getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
@@ -5,13 +5,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.conflict.BookingConflictIndex;
+import ru.practicum.shareit.booking.conflict.IntervalTree;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingDatesResolver;
 import ru.practicum.shareit.common.CustomPageRequest;
 import ru.practicum.shareit.exception.EntityNotExistException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -20,6 +23,8 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -27,6 +32,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -36,35 +42,32 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class ItemServiceImpl implements ItemService {
+    // the item page shows the most recent comments only, the rest are paged by getItemComments
+    private static final int DETAIL_COMMENTS_LIMIT = 10;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
-
-    private void setBookingDates(ItemBookingDto item) {
-        List<Booking> lastBookings = bookingRepository.findItemLastBookings(item.getId(),
-                LocalDateTime.now());
-        if (!lastBookings.isEmpty()) {
-            item.setLastBooking(BookingMapper.INSTANCE.bookingToBookingForItemDto(lastBookings.get(0)));
-        }
-        List<Booking> nextBookings = bookingRepository.findItemNextBookings(item.getId(),
-                LocalDateTime.now());
-        if (!nextBookings.isEmpty()) {
-            item.setNextBooking(BookingMapper.INSTANCE.bookingToBookingForItemDto(nextBookings.get(0)));
-        }
-    }
+    private final BookingDatesResolver bookingDatesResolver;
+    private final BookingConflictIndex bookingConflictIndex;
+    private final ItemAvailabilityCache availabilityCache;
+    private final ItemDetailCache detailCache;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSearchCache searchCache;
 
     @Transactional
     @Override
     public ItemDto createItem(Long userId, ItemDto itemDto) {
         log.info("createItem: {}, userId={}", itemDto, userId);
-        userRepository.findById(userId).orElseThrow(() -> {
+        User owner = userRepository.findById(userId).orElseThrow(() -> {
             log.warn("user with id={} not exist", userId);
             throw new EntityNotExistException(String.format("Пользователь с id=%d не существует.", userId));
         });
         Item item = ItemMapper.INSTANCE.itemDtoToItem(itemDto);
-        item.setOwner(userRepository.findById(userId).get());
+        item.setOwner(owner);
         Long requestId = itemDto.getRequestId();
         if (requestId != null) {
             ItemRequest itemRequest = requestRepository.findById(requestId).orElseThrow(() -> {
@@ -73,7 +76,10 @@ public class ItemServiceImpl implements ItemService {
             });
             item.setRequest(itemRequest);
         }
-        return ItemMapper.INSTANCE.itemToItemDto(itemRepository.save(item));
+        ItemDto createdItem = ItemMapper.INSTANCE.itemToItemDto(itemRepository.save(item));
+        searchIndex.add(createdItem);
+        searchCache.invalidate(null, createdItem);
+        return createdItem;
     }
 
     @Transactional
@@ -88,6 +94,7 @@ public class ItemServiceImpl implements ItemService {
             log.warn("user with id={} is not owner of item with id={}", userId, itemId);
             throw new EntityNotExistException(String.format("Пользователь с id=%d не владелец вещи.", userId));
         }
+        ItemDto itemBefore = ItemMapper.INSTANCE.itemToItemDto(updateItem);
         if (itemDto.getName() != null) {
             updateItem.setName(itemDto.getName());
         }
@@ -97,7 +104,11 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) {
             updateItem.setAvailable(itemDto.getAvailable());
         }
-        return ItemMapper.INSTANCE.itemToItemDto(updateItem);
+        ItemDto updatedItem = ItemMapper.INSTANCE.itemToItemDto(updateItem);
+        detailCache.evict(itemId);
+        searchIndex.update(updatedItem);
+        searchCache.invalidate(itemBefore, updatedItem);
+        return updatedItem;
     }
 
     @Transactional
@@ -113,25 +124,44 @@ public class ItemServiceImpl implements ItemService {
             throw new EntityNotExistException(String.format("Пользователь с id=%d не владелец вещи.", userId));
         }
         itemRepository.deleteById(itemId);
+        bookingConflictIndex.evict(itemId);
+        availabilityCache.evict(itemId);
+        detailCache.evict(itemId);
+        ItemDto deletedItem = ItemMapper.INSTANCE.itemToItemDto(deleteItem);
+        searchIndex.remove(deletedItem);
+        searchCache.invalidate(deletedItem, null);
     }
 
     @Override
     public ItemBookingDto getItemById(Long userId, Long itemId) {
         log.info("getItemById with id={}", itemId);
+        ItemDetailCache.Detail detail = detailCache.getDetail(itemId, () -> loadDetail(itemId));
+        ItemBookingDto itemBookingDto = detail.copyView();
+        if (detail.getOwnerId().equals(userId)) {
+            ItemDetailCache.Bookings bookings = detailCache.getBookings(itemId, () -> {
+                ItemBookingDto withBookings = detail.copyView();
+                bookingDatesResolver.setBookingDates(List.of(withBookings));
+                return new ItemDetailCache.Bookings(withBookings.getLastBooking(), withBookings.getNextBooking());
+            });
+            itemBookingDto.setLastBooking(bookings.getLastBooking());
+            itemBookingDto.setNextBooking(bookings.getNextBooking());
+        }
+        return itemBookingDto;
+    }
+
+    private ItemDetailCache.Detail loadDetail(Long itemId) {
         Item item = itemRepository.findById(itemId).orElseThrow(() -> {
             log.warn("item with id={} not exist", itemId);
             throw new EntityNotExistException(String.format("Вещь с id=%d не существует.", itemId));
         });
-        Long ownerId = item.getOwner().getId();
         ItemBookingDto itemBookingDto = ItemMapper.INSTANCE.itemToItemBookingDto(item);
-        if (ownerId.equals(userId)) {
-            setBookingDates(itemBookingDto);
-        }
-        List<CommentDto> commentsDto = commentRepository.findAllByItemIdOrderById(itemId).stream()
+        List<CommentDto> commentsDto = commentRepository
+                .findByItemIdOrderByIdDesc(itemId, PageRequest.of(0, DETAIL_COMMENTS_LIMIT)).stream()
                 .map(CommentMapper.INSTANCE::commentToCommentDto)
                 .collect(Collectors.toList());
+        Collections.reverse(commentsDto);
         itemBookingDto.setComments(commentsDto);
-        return itemBookingDto;
+        return new ItemDetailCache.Detail(item.getOwner().getId(), itemBookingDto);
     }
 
     @Override
@@ -142,24 +172,77 @@ public class ItemServiceImpl implements ItemService {
             throw new EntityNotExistException(String.format("Пользователь с id=%d не существует.", userId));
         });
         PageRequest pageRequest = new CustomPageRequest(from, size);
-        List<ItemBookingDto> itemBookingDtoList = itemRepository.findByOwnerId(userId, pageRequest).stream()
-                .map(ItemMapper.INSTANCE::itemToItemBookingDto)
-                .collect(Collectors.toList());
-        itemBookingDtoList.forEach(this::setBookingDates);
+        List<ItemBookingDto> itemBookingDtoList = itemRepository.findByOwnerId(userId, pageRequest);
+        bookingDatesResolver.setBookingDates(itemBookingDtoList);
         itemBookingDtoList.sort(Comparator.comparing(ItemBookingDto::getId));
         return itemBookingDtoList;
     }
 
     @Override
-    public List<ItemDto> searchItem(String text, Integer from, Integer size) {
-        log.info("searchItem by text={}", text);
+    public List<ItemDto> searchItem(String text, Boolean ranked, Boolean fuzzy, Integer from, Integer size) {
+        log.info("searchItem by text={}, ranked={}, fuzzy={}", text, ranked, fuzzy);
         if (text.isBlank()) {
             return new ArrayList<>();
         }
+        if (searchIndex.isReady()) {
+            if (fuzzy) {
+                return searchCache.get(text, ItemSearchCache.Mode.FUZZY, from, size,
+                        () -> searchIndex.searchRanked(text, true, from, size));
+            }
+            if (ranked) {
+                return searchCache.get(text, ItemSearchCache.Mode.RANKED, from, size,
+                        () -> searchIndex.searchRanked(text, false, from, size));
+            }
+            return searchCache.get(text, ItemSearchCache.Mode.SUBSTRING, from, size,
+                    () -> searchIndex.search(text, from, size));
+        }
         PageRequest pageRequest = new CustomPageRequest(from, size);
-        return itemRepository.searchItem(text, pageRequest).stream()
-                .map(ItemMapper.INSTANCE::itemToItemDto)
-                .collect(Collectors.toList());
+        return searchCache.get(text, ItemSearchCache.Mode.SUBSTRING, from, size,
+                () -> itemRepository.searchItem(text, pageRequest));
+    }
+
+    @Override
+    public List<String> suggestItemNames(String prefix, Integer limit) {
+        log.info("suggestItemNames by prefix={}, limit={}", prefix, limit);
+        if (prefix.isBlank()) {
+            return new ArrayList<>();
+        }
+        if (searchIndex.isReady()) {
+            return searchIndex.suggest(prefix, limit);
+        }
+        return itemRepository.suggestNames(prefix.strip(), new CustomPageRequest(0, limit));
+    }
+
+    @Override
+    public List<FreeSlotDto> getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("getItemAvailability: itemId={}, from={}, to={}", itemId, from, to);
+        if (!from.isBefore(to)) {
+            log.warn("availability period start {} is not before end {}", from, to);
+            throw new ValidationException("Начало периода должно быть раньше окончания.");
+        }
+        Item item = itemRepository.findById(itemId).orElseThrow(() -> {
+            log.warn("item with id={} not exist", itemId);
+            throw new EntityNotExistException(String.format("Вещь с id=%d не существует.", itemId));
+        });
+        if (!item.getAvailable()) {
+            return new ArrayList<>();
+        }
+        return availabilityCache.get(itemId, from, to, () -> {
+            List<FreeSlotDto> freeSlots = new ArrayList<>();
+            LocalDateTime cursor = from;
+            for (IntervalTree.Interval busy : bookingConflictIndex.findBusyIntervals(itemId, from, to)) {
+                if (busy.getStart().isAfter(cursor)) {
+                    freeSlots.add(new FreeSlotDto(cursor, busy.getStart()));
+                }
+                if (busy.getEnd().isAfter(cursor)) {
+                    cursor = busy.getEnd();
+                }
+            }
+            if (cursor.isBefore(to)) {
+                freeSlots.add(new FreeSlotDto(cursor, to));
+            }
+            return freeSlots;
+        });
     }
 
     @Transactional
@@ -174,14 +257,37 @@ public class ItemServiceImpl implements ItemService {
             log.warn("item with id={} not exist", itemId);
             throw new EntityNotExistException(String.format("Вещь с id=%d не существует.", itemId));
         });
-        bookingRepository.findFirstByBookerAndItemIdAndEndBefore(author, itemId, LocalDateTime.now()).orElseThrow(() -> {
+        if (bookingRepository.findFirstByBookerAndItemIdAndEndBefore(author, itemId, LocalDateTime.now()).isEmpty()
+                && !archivedBookingRepository.existsByBookerIdAndItemId(userId, itemId)) {
             log.warn("user with id={} hasn't booked item with id={}", userId, itemId);
             throw new ValidationException(String.format("Пользователь с id=%d не бронировал вещь с id=%d.", userId, itemId));
-        });
+        }
         Comment comment = CommentMapper.INSTANCE.commentDtoToComment(commentDto);
         comment.setAuthor(author);
         comment.setItem(item);
         comment.setCreated(LocalDateTime.now());
-        return CommentMapper.INSTANCE.commentToCommentDto(commentRepository.save(comment));
+        CommentDto createdComment = CommentMapper.INSTANCE.commentToCommentDto(commentRepository.save(comment));
+        // an atomic increment, so that concurrent comments and item edits neither lose counts nor conflict;
+        // the count is read back, since a comment committed meanwhile makes the loaded one + 1 too low
+        ItemDto itemBefore = ItemMapper.INSTANCE.itemToItemDto(item);
+        itemRepository.incrementCommentCount(itemId);
+        item.setCommentCount(itemRepository.findCommentCountById(itemId));
+        ItemDto itemAfter = ItemMapper.INSTANCE.itemToItemDto(item);
+        detailCache.evict(itemId);
+        searchIndex.update(itemAfter);
+        searchCache.invalidate(itemBefore, itemAfter);
+        return createdComment;
+    }
+
+    @Override
+    public List<CommentDto> getItemComments(Long itemId, Long after, Integer limit) {
+        log.info("getItemComments of item with id={}, after={}, limit={}", itemId, after, limit);
+        if (!itemRepository.existsById(itemId)) {
+            log.warn("item with id={} not exist", itemId);
+            throw new EntityNotExistException(String.format("Вещь с id=%d не существует.", itemId));
+        }
+        return commentRepository.findByItemIdAndIdGreaterThanOrderById(itemId, after, PageRequest.of(0, limit)).stream()
+                .map(CommentMapper.INSTANCE::commentToCommentDto)
+                .collect(Collectors.toList());
     }
 }
@@ -3,12 +3,15 @@ package ru.practicum.shareit.request.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findByRequesterIdOrderByCreatedDesc(Long userId);
+    @Query("select r from ItemRequest r where r.requester.id = :userId order by r.created desc")
+    List<ItemRequest> findByRequesterIdOrderByCreatedDesc(@Param("userId") Long userId);
 
     Page<ItemRequest> findAllByRequesterIdNotOrderByCreatedDesc(Long userId, Pageable pageable);
 }
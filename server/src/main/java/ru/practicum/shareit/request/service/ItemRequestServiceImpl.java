@@ -18,7 +18,9 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,6 +39,20 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         requestDto.setItems(items);
     }
 
+    private void setItems(List<ItemRequestDto> requestsDto) {
+        if (requestsDto.isEmpty()) {
+            return;
+        }
+        List<Long> requestIds = requestsDto.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemDto>> itemsByRequest = itemRepository.findAllByRequestIdIn(requestIds).stream()
+                .map(ItemMapper.INSTANCE::itemToItemDto)
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
+        requestsDto.forEach(requestDto -> requestDto.setItems(
+                itemsByRequest.getOrDefault(requestDto.getId(), new ArrayList<>())));
+    }
+
     @Transactional
     @Override
     public ItemRequestDto createRequest(Long userId, ItemRequestDto itemRequestDto) {
@@ -59,7 +75,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         });
         List<ItemRequestDto> itemRequestsDto = RequestMapper.INSTANCE
                 .requestsToRequestsDto(requestRepository.findByRequesterIdOrderByCreatedDesc(userId));
-        itemRequestsDto.forEach(this::setItems);
+        setItems(itemRequestsDto);
         return itemRequestsDto;
     }
 
@@ -73,7 +89,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         List<ItemRequestDto> itemRequestsDto = RequestMapper.INSTANCE
                 .requestsToRequestsDto(requestRepository.findAllByRequesterIdNotOrderByCreatedDesc(userId, pageRequest)
                         .getContent());
-        itemRequestsDto.forEach(this::setItems);
+        setItems(itemRequestsDto);
         return itemRequestsDto;
     }
 
@@ -8,6 +8,11 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.EntityAlreadyExistException;
 import ru.practicum.shareit.exception.EntityNotExistException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemDetailCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -22,6 +27,10 @@ import java.util.stream.Collectors;
 @Slf4j
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex searchIndex;
+    private final ItemSearchCache searchCache;
+    private final ItemDetailCache detailCache;
 
     @Transactional
     @Override
@@ -32,7 +41,7 @@ public class UserServiceImpl implements UserService {
             throw new ValidationException("Невозможно создать пользователя без email");
         }
         try {
-            User user = userRepository.save(UserMapper.INSTANCE.userDtoToUser(userDto));
+            User user = userRepository.saveAndFlush(UserMapper.INSTANCE.userDtoToUser(userDto));
             return UserMapper.INSTANCE.userToUserDto(user);
         } catch (DataIntegrityViolationException ex) {
             throw new EntityAlreadyExistException(String.format("Пользователь с email=%s уже существует.", userDto.getEmail()));
@@ -55,8 +64,10 @@ public class UserServiceImpl implements UserService {
             }
             updateUser.setEmail(userDto.getEmail());
         }
-        if (userDto.getName() != null) {
+        if (userDto.getName() != null && !userDto.getName().equals(updateUser.getName())) {
             updateUser.setName(userDto.getName());
+            // the name shows as the author of the user's comments
+            detailCache.evictAll();
         }
         return UserMapper.INSTANCE.userToUserDto(updateUser);
     }
@@ -69,6 +80,11 @@ public class UserServiceImpl implements UserService {
             log.warn("user with id={} not exist", userId);
             throw new EntityNotExistException(String.format("Пользователь с id=%d не существует.", userId));
         });
+        // items of the user and items answering the user's requests are removed by ON DELETE CASCADE
+        List<ItemDto> items = itemRepository.findAllOwnedOrRequestedBy(userId);
+        searchIndex.removeAll(items);
+        searchCache.invalidateAll(items);
+        detailCache.evictAll();
         userRepository.deleteById(userId);
     }
 
@@ -1,15 +1,19 @@
-DROP TABLE IF EXISTS items, users, bookings, comments, requests CASCADE;
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users
 (
-    user_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    user_id BIGINT NOT NULL PRIMARY KEY,
     name VARCHAR(50)   NOT NULL,
     email VARCHAR(50)   NOT NULL,
     CONSTRAINT uc_user_email UNIQUE (email)
 );
 
 CREATE TABLE IF NOT EXISTS requests (
-    request_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    request_id BIGINT NOT NULL PRIMARY KEY,
     description VARCHAR(250) NOT NULL,
     user_id BIGINT NOT NULL,
     created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
@@ -18,29 +22,43 @@ CREATE TABLE IF NOT EXISTS requests (
 
 CREATE TABLE IF NOT EXISTS items
 (
-    item_id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    item_id BIGINT NOT NULL PRIMARY KEY,
     name VARCHAR(50)   NOT NULL,
     description VARCHAR(250)   NOT NULL,
     is_available BOOLEAN   NOT NULL,
     user_id BIGINT,
     request_id BIGINT,
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT fk_items_owner_id FOREIGN KEY(user_id) REFERENCES users (user_id) ON DELETE CASCADE,
     CONSTRAINT fk_items_request_id FOREIGN KEY(request_id) REFERENCES requests (request_id) ON DELETE CASCADE
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-    booking_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+    booking_id BIGINT PRIMARY KEY NOT NULL,
     start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id BIGINT NOT NULL,
     booker_id BIGINT NOT NULL,
     status VARCHAR(20) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT fk_bookings_item_id FOREIGN KEY(item_id) REFERENCES items (item_id) ON DELETE CASCADE,
     CONSTRAINT fk_bookings_user_id FOREIGN KEY(booker_id) REFERENCES users (user_id) ON DELETE CASCADE
 );
 
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    booking_id BIGINT PRIMARY KEY NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_bookings_archive_item_id FOREIGN KEY(item_id) REFERENCES items (item_id) ON DELETE CASCADE,
+    CONSTRAINT fk_bookings_archive_user_id FOREIGN KEY(booker_id) REFERENCES users (user_id) ON DELETE CASCADE
+);
+
 CREATE TABLE IF NOT EXISTS comments (
-    comment_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    comment_id BIGINT NOT NULL PRIMARY KEY,
     text VARCHAR(500) NOT NULL,
     item_id BIGINT NOT NULL,
     author_id BIGINT NOT NULL,
@@ -0,0 +1,18 @@
+-- bookings by booker: listings, keyset pages and counters ordered by (start_date, booking_id)
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, booking_id DESC);
+-- bookings by item: last/next booking, conflict timeline, owner listings joined through items
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+-- archiver scan
+CREATE INDEX IF NOT EXISTS idx_bookings_end ON bookings (end_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_start
+    ON bookings_archive (booker_id, start_date DESC, booking_id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_status_end ON bookings_archive (item_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (user_id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id, comment_id);
+CREATE INDEX IF NOT EXISTS idx_comments_author ON comments (author_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (user_id, created DESC);
@@ -0,0 +1,16 @@
+CREATE SEQUENCE IF NOT EXISTS booking_outbox_seq START WITH 1 INCREMENT BY 50;
+
+-- written in the same transaction as the booking change, drained and deleted by the relay;
+-- no foreign keys so events outlive the rows they describe
+CREATE TABLE IF NOT EXISTS booking_outbox (
+    event_id BIGINT NOT NULL PRIMARY KEY,
+    event_type VARCHAR(20) NOT NULL,
+    booking_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    owner_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
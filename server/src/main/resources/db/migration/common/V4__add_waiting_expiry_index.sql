@@ -0,0 +1,2 @@
+-- expiry job: WAITING bookings whose start has passed
+CREATE INDEX IF NOT EXISTS idx_bookings_status_start ON bookings (status, start_date);
@@ -0,0 +1,5 @@
+-- denormalized last/next APPROVED booking of an item, maintained by the booking service, the
+-- sweeper and the reconciler; no foreign keys because archived bookings keep their ids
+ALTER TABLE items ADD COLUMN IF NOT EXISTS last_booking_id BIGINT;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS next_booking_id BIGINT;
+CREATE INDEX IF NOT EXISTS idx_items_next_booking ON items (next_booking_id);
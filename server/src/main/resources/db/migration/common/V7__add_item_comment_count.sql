@@ -0,0 +1,4 @@
+-- denormalized number of comments of an item, incremented by the item service and repaired by the
+-- reconciler
+ALTER TABLE items ADD COLUMN IF NOT EXISTS comment_count INTEGER NOT NULL DEFAULT 0;
+UPDATE items SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.item_id = items.item_id);
@@ -0,0 +1,4 @@
+-- relays claim a batch by stamping it with their token until the lease runs out; rows of a relay that
+-- died become claimable again once claimed_until passes
+ALTER TABLE booking_outbox ADD COLUMN IF NOT EXISTS claimed_by VARCHAR(36);
+ALTER TABLE booking_outbox ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP WITHOUT TIME ZONE;
@@ -0,0 +1,3 @@
+-- H2 has no exclusion constraints; the trigger emulates ex_bookings_approved_overlap
+CREATE TRIGGER IF NOT EXISTS trg_bookings_approved_overlap BEFORE INSERT, UPDATE ON bookings
+    FOR EACH ROW CALL 'ru.practicum.shareit.booking.conflict.ApprovedOverlapTrigger';
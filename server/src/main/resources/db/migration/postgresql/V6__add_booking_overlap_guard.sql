@@ -0,0 +1,12 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- APPROVED bookings of one item must not overlap; tsrange is half-open like the in-memory timeline.
+-- The body is single-quoted rather than dollar-quoted so the script splitter keeps it in one statement.
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_bookings_approved_overlap'') THEN
+        ALTER TABLE bookings ADD CONSTRAINT ex_bookings_approved_overlap
+            EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+            WHERE (status = ''APPROVED'');
+    END IF;
+END';
@@ -0,0 +1,112 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.shareit.QueryPlanTest$SqlCapture",
+        "shareit.scheduling.enabled=false"
+})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class QueryPlanTest {
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+    private static final List<Long> IDS = List.of(1L, 2L);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository requestRepository;
+
+    /**
+     * Collects the SQL Hibernate prepares on the current thread.
+     */
+    public static class SqlCapture implements StatementInspector {
+        private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.get().add(sql);
+            return sql;
+        }
+    }
+
+    static Stream<Arguments> hotQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        return Stream.of(
+                hotQuery("bookings of booker", test -> test.bookingRepository.findAllByBookerId(1L, PAGE),
+                        "IDX_BOOKINGS_BOOKER_START|FK_BOOKINGS_USER_ID"),
+                hotQuery("last bookings of items",
+                        test -> test.bookingRepository.findLastBookingsByItemIds(IDS, now),
+                        "IDX_BOOKINGS_ITEM_STATUS_START"),
+                hotQuery("bookings of owner", test -> test.bookingRepository.findAllByOwnerId(1L, PAGE),
+                        "IDX_ITEMS_OWNER|FK_ITEMS_OWNER_ID"),
+                hotQuery("expired waiting bookings", test -> test.bookingRepository.findExpiredWaiting(now, PAGE),
+                        "IDX_BOOKINGS_STATUS_START"),
+                hotQuery("finished bookings", test -> test.bookingRepository.findAllByEndBefore(now, PAGE),
+                        "IDX_BOOKINGS_END"),
+                hotQuery("archived bookings of booker",
+                        test -> test.archivedBookingRepository.findAllByBookerId(1L, PAGE),
+                        "IDX_BOOKINGS_ARCHIVE_BOOKER_START|FK_BOOKINGS_ARCHIVE_USER_ID"),
+                hotQuery("items of owner", test -> test.itemRepository.findByOwnerId(1L, PAGE),
+                        "IDX_ITEMS_OWNER|FK_ITEMS_OWNER_ID"),
+                hotQuery("items of requests", test -> test.itemRepository.findAllByRequestIdIn(IDS),
+                        "IDX_ITEMS_REQUEST|FK_ITEMS_REQUEST_ID"),
+                hotQuery("comments of item",
+                        test -> test.commentRepository.findByItemIdAndIdGreaterThanOrderById(1L, 0L, PAGE),
+                        "IDX_COMMENTS_ITEM|FK_COMMENTS_ITEM_ID"),
+                hotQuery("requests of requester",
+                        test -> test.requestRepository.findByRequesterIdOrderByCreatedDesc(1L),
+                        "IDX_REQUESTS_REQUESTER_CREATED|FK_REQUESTS_USER_ID")
+        );
+    }
+
+    /**
+     * Explains the SQL Hibernate generates for the repository method, not a hand-written equivalent.
+     * H2 backs every foreign key with its own index, PostgreSQL does not, and H2 does not weigh the sort
+     * a composite index saves: lookups by a single column accept either, ones by several must hit the
+     * migration's index.
+     */
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQueryUsesIndex(String name, Consumer<QueryPlanTest> query, String indexes) {
+        List<String> statements = SqlCapture.STATEMENTS.get();
+        statements.clear();
+        query.accept(this);
+        assertEquals(1, statements.size(), String.format("Количество SQL-запросов не совпадает: %s", statements));
+
+        String plan = jdbcTemplate.queryForObject("explain " + statements.get(0), String.class);
+        assertTrue(plan != null && Pattern.compile("PUBLIC\\.(" + indexes + ")").matcher(plan).find(),
+                String.format("Запрос не использует индекс %s: %s", indexes, plan));
+        assertFalse(plan.contains("tableScan"), String.format("Запрос читает таблицу целиком: %s", plan));
+    }
+
+    private static Arguments hotQuery(String name, Consumer<QueryPlanTest> query, String indexes) {
+        return Arguments.of(name, query, indexes);
+    }
+}
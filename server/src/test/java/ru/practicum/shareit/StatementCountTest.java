@@ -0,0 +1,184 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.scheduling.enabled=false"
+})
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class StatementCountTest {
+    private static final int ITEMS = 5;
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService requestService;
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ItemSearchIndex searchIndex;
+    private UserDto owner;
+    private UserDto booker;
+    private UserDto requester;
+    private final List<ItemDto> items = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(createUserDto("owner", "owner@test.ru"));
+        booker = userService.createUser(createUserDto("booker", "booker@test.ru"));
+        requester = userService.createUser(createUserDto("requester", "requester@test.ru"));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            ItemRequestDto requestDto = new ItemRequestDto();
+            requestDto.setDescription("request " + i);
+            ItemRequestDto request = requestService.createRequest(requester.getId(), requestDto);
+
+            ItemDto itemDto = new ItemDto();
+            itemDto.setName("item " + i);
+            itemDto.setDescription("description " + i);
+            itemDto.setAvailable(true);
+            itemDto.setRequestId(request.getId());
+            ItemDto item = itemService.createItem(owner.getId(), itemDto);
+            items.add(item);
+
+            BookingResponseDto pastBooking = bookingService.createBooking(booker.getId(),
+                    createBookingDto(item.getId(), now.minusDays(3), now.minusDays(2)));
+            bookingService.approveBooking(owner.getId(), pastBooking.getId(), true);
+            BookingResponseDto futureBooking = bookingService.createBooking(booker.getId(),
+                    createBookingDto(item.getId(), now.plusDays(2), now.plusDays(3)));
+            bookingService.approveBooking(owner.getId(), futureBooking.getId(), true);
+
+            CommentDto commentDto = new CommentDto();
+            commentDto.setText("comment " + i);
+            itemService.createComment(booker.getId(), item.getId(), commentDto);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void getBookingsByUser() {
+        assertEquals(ITEMS * 2, bookingService.getBookingsByUser(booker.getId(), State.ALL.name(), 0, 20).size());
+        assertStatements(3);
+    }
+
+    @Test
+    void getBookingsByOwner() {
+        assertEquals(ITEMS * 2, bookingService.getBookingsByOwner(owner.getId(), State.ALL.name(), 0, 20).size());
+        assertStatements(3);
+    }
+
+    @Test
+    void getBookingsByOwnerWithCursor() {
+        assertEquals(ITEMS * 2, bookingService.getBookingsByOwner(owner.getId(), State.ALL.name(), "", 20)
+                .getBookings().size());
+        assertStatements(3);
+    }
+
+    @Test
+    void getUserItems() {
+        assertEquals(ITEMS, itemService.getUserItems(owner.getId(), 0, 20).size());
+        assertStatements(4);
+    }
+
+    @Test
+    void getItemById() {
+        assertEquals(1, itemService.getItemById(owner.getId(), items.get(0).getId()).getComments().size());
+        assertStatements(4);
+    }
+
+    @Test
+    void getItemByIdCached() {
+        Long itemId = items.get(0).getId();
+        ItemBookingDto firstView = itemService.getItemById(owner.getId(), itemId);
+        statistics().clear();
+        ItemBookingDto ownerView = itemService.getItemById(owner.getId(), itemId);
+        ItemBookingDto bookerView = itemService.getItemById(booker.getId(), itemId);
+        assertStatements(0);
+        assertEquals(firstView, ownerView, "Вещь не совпадает.");
+        assertNotNull(ownerView.getNextBooking(), "Нет следующего бронирования.");
+        assertNull(bookerView.getNextBooking(), "Бронирование видно не владельцу.");
+        assertEquals(1, bookerView.getComments().size(), "Количество комментариев не совпадает.");
+    }
+
+    @Test
+    void searchItem() throws InterruptedException {
+        assertTrue(searchIndex.awaitReady(Duration.ofSeconds(10)), "Поисковый индекс не загружен.");
+        // the index takes the items only once they are committed
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        try {
+            statistics().clear();
+            assertEquals(ITEMS, itemService.searchItem("item", false, false, 0, 20).size());
+            assertStatements(0);
+        } finally {
+            userService.deleteUser(booker.getId());
+            userService.deleteUser(owner.getId());
+            userService.deleteUser(requester.getId());
+        }
+    }
+
+    @Test
+    void getAllRequests() {
+        assertEquals(ITEMS, requestService.getAllRequests(owner.getId(), 0, 20).size());
+        assertStatements(3);
+    }
+
+    private void assertStatements(long expected) {
+        assertEquals(expected, statistics().getPrepareStatementCount(), "Количество SQL-запросов не совпадает.");
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static UserDto createUserDto(String name, String email) {
+        UserDto userDto = new UserDto();
+        userDto.setName(name);
+        userDto.setEmail(email);
+        return userDto;
+    }
+
+    private static BookingDto createBookingDto(Long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setItemId(itemId);
+        bookingDto.setStart(start);
+        bookingDto.setEnd(end);
+        return bookingDto;
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.benchmark;
+
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two insert paths Hibernate takes: one round-trip per row with an identity column,
+ * and JDBC batches with ids taken from a pooled sequence (one sequence call per 50 rows).
+ * H2 runs in TCP server mode so that every round-trip crosses a socket, as it does with PostgreSQL.
+ * Scores are rows per second. Run with {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBatchingBenchmark {
+    private static final int ROWS = 500;
+    private static final int BATCH_SIZE = 50;
+
+    private Server server;
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void createSchema() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        connection = DriverManager.getConnection("jdbc:h2:tcp://localhost:" + server.getPort() +
+                "/mem:insert-benchmark;DB_CLOSE_DELAY=-1", "test", "test");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE identity_users (user_id BIGINT GENERATED BY DEFAULT AS IDENTITY " +
+                    "PRIMARY KEY, name VARCHAR(50) NOT NULL, email VARCHAR(50) NOT NULL)");
+            statement.execute("CREATE TABLE sequence_users (user_id BIGINT NOT NULL PRIMARY KEY, " +
+                    "name VARCHAR(50) NOT NULL, email VARCHAR(50) NOT NULL)");
+            statement.execute("CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY " + BATCH_SIZE);
+        }
+        connection.commit();
+    }
+
+    @Setup(Level.Invocation)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE identity_users");
+            statement.execute("TRUNCATE TABLE sequence_users");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+        server.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long identityInserts() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO identity_users (name, email) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setString(1, "user" + i);
+                insert.setString(2, "user" + i + "@test.ru");
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long sequenceBatchedInserts() throws SQLException {
+        long nextId = 0;
+        long maxId = -1;
+        try (PreparedStatement sequence = connection.prepareStatement("SELECT NEXT VALUE FOR users_seq");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO sequence_users (user_id, name, email) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                if (nextId > maxId) {
+                    try (ResultSet value = sequence.executeQuery()) {
+                        value.next();
+                        maxId = value.getLong(1);
+                    }
+                    nextId = maxId - BATCH_SIZE + 1;
+                }
+                insert.setLong(1, nextId++);
+                insert.setString(2, "user" + i);
+                insert.setString(3, "user" + i + "@test.ru");
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return nextId;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InsertBatchingBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.benchmark;
+
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.FullTextIndex;
+import ru.practicum.shareit.item.search.TrigramIndex;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares item search through the {@code lower(...) like '%text%'} query, which scans the whole table,
+ * with the in-memory {@link TrigramIndex} and the ranked {@link FullTextIndex} over the same 1M items.
+ * The query parameter covers a rare term, a term shared by about a thousand items, a term present in
+ * every tenth item and a misspelled name that only fuzzy search finds; each call returns the first page
+ * of 20. Ranked search scores every match before taking the page. Descriptions carry one of 50k made-up
+ * brand words, so that fuzzy search expands over a vocabulary of realistic size. H2 runs in TCP server
+ * mode as in {@link InsertBatchingBenchmark}. Scores are microseconds per search. Run with
+ * {@link #main(String[])} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemSearchBenchmark {
+    private static final int ITEMS = 1_000_000;
+    private static final int BATCH_SIZE = 1000;
+    private static final int PAGE_SIZE = 20;
+    private static final String[] NAMES = {"Дрель", "Молоток", "Пила", "Отвертка", "Лестница",
+            "Палатка", "Велосипед", "Проектор", "Перфоратор", "Шуруповерт"};
+    private static final String[] ADJECTIVES = {"ударная", "складная", "походная", "электрическая", "ручная",
+            "большая", "компактная"};
+    private static final String[] SYLLABLES = {"ба", "ве", "ги", "до", "жу", "зе", "ки", "ло", "ми", "на",
+            "по", "ру", "си", "та", "фе", "хо", "це", "ша", "ю", "я"};
+    private static final int BRANDS = 50_000;
+
+    @Param({"шуруповерт 777779", "модель 123", "перфоратор", "шуроповерт"})
+    private String text;
+
+    private Server server;
+    private Connection connection;
+    private PreparedStatement search;
+    private TrigramIndex index;
+    private FullTextIndex fullTextIndex;
+
+    @Setup(Level.Trial)
+    public void fill() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        connection = DriverManager.getConnection("jdbc:h2:tcp://localhost:" + server.getPort() +
+                "/mem:search-benchmark;DB_CLOSE_DELAY=-1", "test", "test");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE items (item_id BIGINT NOT NULL PRIMARY KEY, name VARCHAR(50) NOT NULL, " +
+                    "description VARCHAR(250) NOT NULL, is_available BOOLEAN NOT NULL, request_id BIGINT)");
+        }
+        index = new TrigramIndex();
+        fullTextIndex = new FullTextIndex();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO items (item_id, name, description, is_available) VALUES (?, ?, ?, ?)")) {
+            for (int i = 1; i <= ITEMS; i++) {
+                ItemDto item = new ItemDto((long) i, NAMES[i % NAMES.length] + " " + i,
+                        ADJECTIVES[i % ADJECTIVES.length] + ", " + brand(i) + ", модель " + (i % 1000), i % 5 != 0,
+                        null);
+                insert.setLong(1, item.getId());
+                insert.setString(2, item.getName());
+                insert.setString(3, item.getDescription());
+                insert.setBoolean(4, item.getAvailable());
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+                index.put(item);
+                fullTextIndex.put(item, null);
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        search = connection.prepareStatement("SELECT item_id, name, description, is_available, request_id " +
+                "FROM items WHERE (LOWER(name) LIKE LOWER(CONCAT('%', ?, '%')) " +
+                "OR LOWER(description) LIKE LOWER(CONCAT('%', ?, '%'))) AND is_available = TRUE " +
+                "ORDER BY item_id LIMIT ?");
+    }
+
+    private static String brand(int i) {
+        StringBuilder brand = new StringBuilder();
+        for (int code = (int) (i * 7919L % BRANDS) + SYLLABLES.length; code > 0; code /= SYLLABLES.length) {
+            brand.append(SYLLABLES[code % SYLLABLES.length]);
+        }
+        return brand.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        search.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public List<ItemDto> likeQuery() throws SQLException {
+        search.setString(1, text);
+        search.setString(2, text);
+        search.setInt(3, PAGE_SIZE);
+        List<ItemDto> result = new ArrayList<>();
+        try (ResultSet rows = search.executeQuery()) {
+            while (rows.next()) {
+                result.add(new ItemDto(rows.getLong(1), rows.getString(2), rows.getString(3),
+                        rows.getBoolean(4), rows.getObject(5, Long.class)));
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ItemDto> trigramIndex() {
+        return index.search(text, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Long> fullTextIndex() {
+        return fullTextIndex.search(text, false, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Long> fuzzyFullTextIndex() {
+        return fullTextIndex.search(text, true, 0, PAGE_SIZE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemSearchBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
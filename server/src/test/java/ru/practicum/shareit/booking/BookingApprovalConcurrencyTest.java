@@ -0,0 +1,132 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.OperationNotAllowed;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingApprovalConcurrencyTest {
+    private static final int THREADS = 8;
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+    private BookingResponseDto booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(createUserDto("owner", "concurrency-owner@test.ru"));
+        booker = userService.createUser(createUserDto("booker", "concurrency-booker@test.ru"));
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("item");
+        itemDto.setDescription("description");
+        itemDto.setAvailable(true);
+        item = itemService.createItem(owner.getId(), itemDto);
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setItemId(item.getId());
+        bookingDto.setStart(LocalDateTime.now().plusDays(1));
+        bookingDto.setEnd(LocalDateTime.now().plusDays(2));
+        booking = bookingService.createBooking(booker.getId(), bookingDto);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.deleteUser(booker.getId());
+        userService.deleteUser(owner.getId());
+    }
+
+    @RepeatedTest(3)
+    void approveBookingConcurrently() throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BookingResponseDto>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approved = i % 2 == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return bookingService.approveBooking(owner.getId(), booking.getId(), approved);
+            }));
+        }
+        start.countDown();
+
+        List<BookingResponseDto> succeeded = new ArrayList<>();
+        for (Future<BookingResponseDto> future : futures) {
+            try {
+                succeeded.add(future.get());
+            } catch (ExecutionException ex) {
+                assertTrue(ex.getCause() instanceof OperationNotAllowed || ex.getCause() instanceof ConflictException,
+                        "Неожиданная ошибка: " + ex.getCause());
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, succeeded.size(), "Бронирование должно быть подтверждено ровно один раз.");
+        BookingStatus status = bookingService.getBookingById(owner.getId(), booking.getId()).getStatus();
+        assertEquals(succeeded.get(0).getStatus(), status);
+    }
+
+    @RepeatedTest(3)
+    void approveBookingsOfOneItemConcurrently() throws InterruptedException, ExecutionException {
+        List<BookingResponseDto> bookings = new ArrayList<>(List.of(booking));
+        for (int i = 1; i < THREADS; i++) {
+            BookingDto bookingDto = new BookingDto();
+            bookingDto.setItemId(item.getId());
+            bookingDto.setStart(LocalDateTime.now().plusDays(2L * i + 1));
+            bookingDto.setEnd(LocalDateTime.now().plusDays(2L * i + 2));
+            bookings.add(bookingService.createBooking(booker.getId(), bookingDto));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BookingResponseDto>> futures = new ArrayList<>();
+        for (BookingResponseDto waiting : bookings) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return bookingService.approveBooking(owner.getId(), waiting.getId(), true);
+            }));
+        }
+        start.countDown();
+        for (Future<BookingResponseDto> future : futures) {
+            assertEquals(BookingStatus.APPROVED, future.get().getStatus());
+        }
+        executor.shutdown();
+
+        assertEquals(booking.getId(), itemService.getItemById(owner.getId(), item.getId()).getNextBooking().getId(),
+                "Ближайшим должно остаться самое раннее подтверждённое бронирование.");
+    }
+
+    private static UserDto createUserDto(String name, String email) {
+        UserDto userDto = new UserDto();
+        userDto.setName(name);
+        userDto.setEmail(email);
+        return userDto;
+    }
+}
@@ -10,8 +10,12 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
@@ -29,6 +33,7 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.item.controller.ItemController.USER_HEADER;
@@ -114,6 +119,46 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is(bookingResponseDto.getStatus().toString())));
     }
 
+    @Test
+    void approveBookings() throws Exception {
+        List<BookingApprovalDto> approvals = List.of(new BookingApprovalDto(1L, true), new BookingApprovalDto(2L, false));
+        List<BookingApprovalResultDto> results = List.of(
+                new BookingApprovalResultDto(1L, BookingStatus.APPROVED, null),
+                new BookingApprovalResultDto(2L, null, "Бронирование с id=2 не существует."));
+        when(bookingService.approveBookings(1L, approvals))
+                .thenReturn(results);
+
+        mvc.perform(patch("/bookings/batch")
+                        .content(mapper.writeValueAsString(approvals))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].bookingId", is(1L), Long.class))
+                .andExpect(jsonPath("$.[0].status", is(BookingStatus.APPROVED.toString())))
+                .andExpect(jsonPath("$.[1].bookingId", is(2L), Long.class))
+                .andExpect(jsonPath("$.[1].error", is(results.get(1).getError())));
+    }
+
+    @Test
+    void getBookingsSummaryByOwner() throws Exception {
+        BookingSummaryDto summary = new BookingSummaryDto(7L, 1L, 1L, 2L, 1L, 1L, 1L);
+        when(bookingService.getBookingsSummaryByOwner(1L))
+                .thenReturn(summary);
+
+        mvc.perform(get("/bookings/owner/summary")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all", is(7)))
+                .andExpect(jsonPath("$.waiting", is(1)))
+                .andExpect(jsonPath("$.future", is(2)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.expired", is(1)));
+    }
+
     @Test
     void getBooking() throws Exception {
         when(bookingService.getBookingById(any(Long.class), any(Long.class)))
@@ -175,4 +220,18 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.[0].booker.id", is(bookingResponseDto.getBooker().getId()), Long.class))
                 .andExpect(jsonPath("$.[0].status", is(bookingResponseDto.getStatus().toString())));
     }
+
+    @Test
+    void getBookingsByOwnerWithCursor() throws Exception {
+        when(bookingService.getBookingsByOwner(any(Long.class), any(String.class), any(String.class),
+                any(Integer.class))).thenReturn(new BookingPageDto(List.of(bookingResponseDto), "next"));
+
+        mvc.perform(get("/bookings/owner?cursor=&size=1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$.[0].id", is(bookingResponseDto.getId()), Long.class));
+    }
 }
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.outbox.BookingEvent;
+import ru.practicum.shareit.booking.outbox.BookingEventRepository;
+import ru.practicum.shareit.booking.outbox.BookingEventSink;
+import ru.practicum.shareit.booking.outbox.BookingEventType;
+import ru.practicum.shareit.booking.outbox.BookingOutboxRelay;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+@RecordApplicationEvents
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingOutboxTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final BookingEventRepository bookingEventRepository;
+    private final BookingOutboxRelay bookingOutboxRelay;
+    private final TransactionTemplate transactionTemplate;
+    private UserDto owner;
+    private BookingResponseDto booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(createUserDto("owner", "owner@test.ru"));
+        UserDto booker = userService.createUser(createUserDto("booker", "booker@test.ru"));
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("item");
+        itemDto.setDescription("description");
+        itemDto.setAvailable(true);
+        ItemDto item = itemService.createItem(owner.getId(), itemDto);
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setItemId(item.getId());
+        bookingDto.setStart(LocalDateTime.now().plusDays(1));
+        bookingDto.setEnd(LocalDateTime.now().plusDays(2));
+        booking = bookingService.createBooking(booker.getId(), bookingDto);
+    }
+
+    @Test
+    void bookingChangesAreRelayedToListeners(@Autowired ApplicationEvents applicationEvents) {
+        bookingService.approveBooking(owner.getId(), booking.getId(), true);
+        List<BookingEvent> events = eventsOf(booking.getId());
+        assertEquals(List.of(BookingEventType.CREATED, BookingEventType.STATUS_CHANGED),
+                events.stream().map(BookingEvent::getType).collect(Collectors.toList()));
+        assertEquals(List.of(BookingStatus.WAITING, BookingStatus.APPROVED),
+                events.stream().map(BookingEvent::getStatus).collect(Collectors.toList()));
+        assertEquals(owner.getId(), events.get(0).getOwnerId());
+
+        assertTrue(bookingOutboxRelay.relay() >= 2);
+        assertEquals(List.of(), eventsOf(booking.getId()));
+        assertEquals(2, applicationEvents.stream(BookingEvent.class)
+                .filter(event -> event.getBookingId().equals(booking.getId()))
+                .count());
+    }
+
+    @Test
+    void failedBatchStaysInOutbox() {
+        List<BookingEvent> received = new ArrayList<>();
+        FlakySink sink = new FlakySink(received);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BookingOutboxRelay relay = new BookingOutboxRelay(bookingEventRepository, transactionTemplate, List.of(sink),
+                meterRegistry, 100, 10, Duration.ofMillis(10), Duration.ofSeconds(1), Duration.ofMinutes(1));
+
+        assertEquals(0, relay.relay());
+        assertEquals(1, eventsOf(booking.getId()).size());
+        assertEquals(1.0, meterRegistry.get("shareit.outbox.failures").counter().count());
+        relay.refreshBacklog();
+        assertTrue(meterRegistry.get("shareit.outbox.backlog").gauge().value() >= 1);
+
+        sink.failing = false;
+        assertTrue(relay.relay() >= 1);
+        assertEquals(List.of(), eventsOf(booking.getId()));
+        assertTrue(received.stream().anyMatch(event -> event.getBookingId().equals(booking.getId())));
+        assertTrue(meterRegistry.get("shareit.outbox.delivered").counter().count() >= 1);
+    }
+
+    @Test
+    void claimedEventsAreLeftToTheirRelay() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = bookingEventRepository.findUnclaimedIds(now, PageRequest.of(0, 1000));
+        assertEquals(ids.size(), bookingEventRepository.claim(ids, "other-relay", now, now.plusMinutes(1)));
+
+        assertEquals(0, bookingOutboxRelay.relay());
+        assertEquals(1, eventsOf(booking.getId()).size());
+
+        bookingEventRepository.releaseClaimed("other-relay");
+        assertTrue(bookingOutboxRelay.relay() >= 1);
+        assertEquals(List.of(), eventsOf(booking.getId()));
+    }
+
+    private List<BookingEvent> eventsOf(Long bookingId) {
+        return bookingEventRepository.findAll(Sort.by("id")).stream()
+                .filter(event -> event.getBookingId().equals(bookingId))
+                .collect(Collectors.toList());
+    }
+
+    private static UserDto createUserDto(String name, String email) {
+        UserDto userDto = new UserDto();
+        userDto.setName(name);
+        userDto.setEmail(email);
+        return userDto;
+    }
+
+    private static class FlakySink implements BookingEventSink {
+        private final List<BookingEvent> received;
+        private boolean failing = true;
+
+        FlakySink(List<BookingEvent> received) {
+            this.received = received;
+        }
+
+        @Override
+        public String getName() {
+            return "flaky";
+        }
+
+        @Override
+        public void deliver(List<BookingEvent> events) {
+            if (failing) {
+                throw new IllegalStateException("sink is down");
+            }
+            received.addAll(events);
+        }
+    }
+}
@@ -5,23 +5,42 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.conflict.BookingConflictIndex;
+import ru.practicum.shareit.booking.conflict.IntervalTree;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingArchiver;
+import ru.practicum.shareit.booking.service.BookingExpirer;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.SeekCursor;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.EntityNotExistException;
 import ru.practicum.shareit.exception.OperationNotAllowed;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,6 +52,11 @@ public class BookingServiceImplTest {
     private final UserService userService;
     private final ItemRequestService requestService;
     private final BookingService bookingService;
+    private final BookingArchiver bookingArchiver;
+    private final BookingConflictIndex bookingConflictIndex;
+    private final BookingExpirer bookingExpirer;
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
     private ItemDto itemDto;
     private UserDto userDto;
     private BookingDto bookingDto;
@@ -51,8 +75,8 @@ public class BookingServiceImplTest {
         itemDto.setAvailable(true);
 
         bookingDto = new BookingDto();
-        bookingDto.setStart(LocalDateTime.now().plusHours(1));
-        bookingDto.setEnd(LocalDateTime.now().plusDays(7));
+        bookingDto.setStart(LocalDateTime.now().withNano(0).plusHours(1));
+        bookingDto.setEnd(LocalDateTime.now().withNano(0).plusDays(7));
     }
 
     @Test
@@ -119,6 +143,49 @@ public class BookingServiceImplTest {
         assertEquals("Вещь не может быть забронирована владельцем.", ex.getMessage());
     }
 
+    @Test
+    void createBookingOverlapping() {
+        UserDto createdUser = userService.createUser(userDto);
+        ItemDto createdItemDto = itemService.createItem(createdUser.getId(), itemDto);
+        bookingDto.setItemId(createdItemDto.getId());
+        UserDto newUserDto = new UserDto();
+        newUserDto.setName("Test2");
+        newUserDto.setEmail("newtest@test.ru");
+        UserDto otherUserDto = userService.createUser(newUserDto);
+        bookingService.createBooking(otherUserDto.getId(), bookingDto);
+
+        BookingDto overlappingBookingDto = new BookingDto();
+        overlappingBookingDto.setItemId(createdItemDto.getId());
+        overlappingBookingDto.setStart(bookingDto.getEnd().minusDays(1));
+        overlappingBookingDto.setEnd(bookingDto.getEnd().plusDays(1));
+        ConflictException ex = assertThrows(ConflictException.class,
+                () -> bookingService.createBooking(otherUserDto.getId(), overlappingBookingDto));
+        assertEquals(String.format("Вещь с id=%d уже забронирована на это время.", createdItemDto.getId()), ex.getMessage());
+
+        BookingDto adjacentBookingDto = new BookingDto();
+        adjacentBookingDto.setItemId(createdItemDto.getId());
+        adjacentBookingDto.setStart(bookingDto.getEnd());
+        adjacentBookingDto.setEnd(bookingDto.getEnd().plusDays(1));
+        BookingResponseDto adjacentBooking = bookingService.createBooking(otherUserDto.getId(), adjacentBookingDto);
+        assertEquals(BookingStatus.WAITING, adjacentBooking.getStatus());
+    }
+
+    @Test
+    void createBookingOverlappingRejected() {
+        UserDto createdUser = userService.createUser(userDto);
+        ItemDto createdItemDto = itemService.createItem(createdUser.getId(), itemDto);
+        bookingDto.setItemId(createdItemDto.getId());
+        UserDto newUserDto = new UserDto();
+        newUserDto.setName("Test2");
+        newUserDto.setEmail("newtest@test.ru");
+        UserDto otherUserDto = userService.createUser(newUserDto);
+        BookingResponseDto rejectedBooking = bookingService.createBooking(otherUserDto.getId(), bookingDto);
+        bookingService.approveBooking(createdUser.getId(), rejectedBooking.getId(), false);
+
+        BookingResponseDto responseBooking = bookingService.createBooking(otherUserDto.getId(), bookingDto);
+        assertEquals(BookingStatus.WAITING, responseBooking.getStatus());
+    }
+
     @Test
     void approveBooking() {
         UserDto createdUser = userService.createUser(userDto);
@@ -135,6 +202,38 @@ public class BookingServiceImplTest {
         assertEquals(BookingStatus.APPROVED, approvedBooking.getStatus());
     }
 
+    @Test
+    void approveOverlappingBookingRejectedByDatabase() {
+        UserDto createdUser = userService.createUser(userDto);
+        ItemDto createdItemDto = itemService.createItem(createdUser.getId(), itemDto);
+        UserDto newUserDto = new UserDto();
+        newUserDto.setName("Test2");
+        newUserDto.setEmail("newtest@test.ru");
+        UserDto otherUserDto = userService.createUser(newUserDto);
+        bookingDto.setItemId(createdItemDto.getId());
+        BookingResponseDto approvedBooking = bookingService.createBooking(otherUserDto.getId(), bookingDto);
+        bookingService.approveBooking(createdUser.getId(), approvedBooking.getId(), true);
+
+        // written around the in-memory conflict index, as another server instance would
+        Booking overlapping = saveBooking(createdItemDto.getId(), otherUserDto.getId(), BookingStatus.WAITING);
+        ConflictException ex = assertThrows(ConflictException.class,
+                () -> bookingService.approveBooking(createdUser.getId(), overlapping.getId(), true));
+        assertEquals(String.format("Вещь с id=%d уже забронирована на это время.", createdItemDto.getId()),
+                ex.getMessage());
+        // a failed flush leaves the APPROVED state in the persistence context; a new request starts clean
+        entityManager.clear();
+
+        BookingApprovalDto approval = new BookingApprovalDto();
+        approval.setBookingId(overlapping.getId());
+        approval.setApproved(true);
+        ex = assertThrows(ConflictException.class,
+                () -> bookingService.approveBookings(createdUser.getId(), List.of(approval)));
+        assertEquals("Подтверждаемые бронирования пересекаются с уже подтверждёнными.", ex.getMessage());
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> saveBooking(createdItemDto.getId(), otherUserDto.getId(), BookingStatus.APPROVED));
+    }
+
     @Test
     void approveBookingNotExist() {
         UserDto createdUser = userService.createUser(userDto);
@@ -178,6 +277,104 @@ public class BookingServiceImplTest {
         assertEquals("Бронирование не в статусе ожидания подтверждения.", ex.getMessage());
     }
 
+    @Test
+    void approveBookings() {
+        UserDto createdUser = userService.createUser(userDto);
+        ItemDto createdItemDto = itemService.createItem(createdUser.getId(), itemDto);
+        bookingDto.setItemId(createdItemDto.getId());
+        UserDto newUserDto = new UserDto();
+        newUserDto.setName("Test2");
+        newUserDto.setEmail("newtest@test.ru");
+        UserDto otherUserDto = userService.createUser(newUserDto);
+        BookingResponseDto approvedBooking = bookingService.createBooking(otherUserDto.getId(), bookingDto);
+        BookingDto laterBookingDto = new BookingDto();
+        laterBookingDto.setItemId(createdItemDto.getId());
+        laterBookingDto.setStart(bookingDto.getEnd().plusDays(1));
+        laterBookingDto.setEnd(bookingDto.getEnd().plusDays(2));
+        BookingResponseDto rejectedBooking = bookingService.createBooking(otherUserDto.getId(), laterBookingDto);
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(createdUser.getId(), List.of(
+                new BookingApprovalDto(approvedBooking.getId(), true),
+                new BookingApprovalDto(rejectedBooking.getId(), false),
+                new BookingApprovalDto(approvedBooking.getId(), false),
+                new BookingApprovalDto(100L, true)));
+        assertEquals(List.of(
+                new BookingApprovalResultDto(approvedBooking.getId(), BookingStatus.APPROVED, null),
+                new BookingApprovalResultDto(rejectedBooking.getId(), BookingStatus.REJECTED, null),
+                new BookingApprovalResultDto(approvedBooking.getId(), null,
+                        "Бронирование не в статусе ожидания подтверждения."),
+                new BookingApprovalResultDto(100L, null, "Бронирование с id=100 не существует.")), results);
+        assertEquals(BookingStatus.APPROVED,
+                bookingService.getBookingById(createdUser.getId(), approvedBooking.getId()).getStatus());
+        assertEquals(BookingStatus.REJECTED,
+                bookingService.getBookingById(createdUser.getId(), rejectedBooking.getId()).getStatus());
+
+        BookingResponseDto rebooked = bookingService.createBooking(otherUserDto.getId(), laterBookingDto);
+        assertEquals(BookingStatus.WAITING, rebooked.getStatus());
+    }
+
+    @Test
+    void approveBookingsByNotOwner() {
+        UserDto createdUser = userService.createUser(userDto);
+        ItemDto createdItemDto = itemService.createItem(createdUser.getId(), itemDto);
+        bookingDto.setItemId(createdItemDto.getId());
+        UserDto newUserDto = new UserDto();
+        newUserDto.setName("Test2");
+        newUserDto.setEmail("newtest@test.ru");
+        UserDto otherUserDto = userService.createUser(newUserDto);
+        BookingResponseDto responseBooking = bookingService.createBooking(otherUserDto.getId(), bookingDto);
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(otherUserDto.getId(),
+                List.of(new BookingApprovalDto(responseBooking.getId(), true)));
+        assertEquals(String.format("Пользователь с id=%d не является владельцем вещи.", otherUserDto.getId()),
+                results.get(0).getError());
+        assertEquals(BookingStatus.WAITING,
+                bookingService.getBookingById(createdUser.getId(), responseBooking.getId()).getStatus());
+    }
+
+    @Test
+    void expireWaitingBookings() {
+        UserDto createdUser = userService.createUser(userDto);
+        ItemDto createdItemDto = itemService.createItem(createdUser.getId(), itemDto);
+        UserDto newUserDto = new UserDto();
+        newUserDto.setName("Test2");
+        newUserDto.setEmail("newtest@test.ru");
+        UserDto otherUserDto = userService.createUser(newUserDto);
+        bookingDto.setItemId(createdItemDto.getId());
+        bookingDto.setStart(LocalDateTime.now().withNano(0).minusDays(1));
+        bookingDto.setEnd(LocalDateTime.now().withNano(0).plusDays(1));
+        BookingResponseDto staleBooking = bookingService.createBooking(otherUserDto.getId(), bookingDto);
+        BookingDto futureBookingDto = new BookingDto();
+        futureBookingDto.setStart(LocalDateTime.now().withNano(0).plusDays(5));
+        futureBookingDto.setEnd(LocalDateTime.now().withNano(0).plusDays(10));
+        futureBookingDto.setItemId(createdItemDto.getId());
+        BookingResponseDto futureBooking = bookingService.createBooking(otherUserDto.getId(), futureBookingDto);
+
+        assertEquals(1, bookingExpirer.expire(LocalDateTime.now()));
+        assertEquals(0, bookingExpirer.expire(LocalDateTime.now()));
+
+        staleBooking.setStatus(BookingStatus.EXPIRED);
+        assertEquals(staleBooking, bookingService.getBookingById(createdUser.getId(), staleBooking.getId()));
+        assertEquals(List.of(futureBooking),
+                bookingService.getBookingsByOwner(createdUser.getId(), State.WAITING.name(), 0, 10));
+        assertEquals(List.of(staleBooking),
+                bookingService.getBookingsByUser(otherUserDto.getId(), State.EXPIRED.name(), 0, 10));
+        assertEquals(List.of(staleBooking),
+                bookingService.getBookingsByOwner(createdUser.getId(), State.EXPIRED.name(), "", 10).getBookings());
+        assertEquals(new BookingSummaryDto(2L, 1L, 1L, 1L, 0L, 0L, 1L),
+                bookingService.getBookingsSummaryByOwner(createdUser.getId()));
+        OperationNotAllowed ex = assertThrows(OperationNotAllowed.class,
+                () -> bookingService.approveBooking(createdUser.getId(), staleBooking.getId(), true));
+        assertEquals("Бронирование не в статусе ожидания подтверждения.", ex.getMessage());
+
+        BookingDto sameTimeBookingDto = new BookingDto();
+        sameTimeBookingDto.setStart(LocalDateTime.now().withNano(0).plusHours(1));
+        sameTimeBookingDto.setEnd(LocalDateTime.now().withNano(0).plusHours(2));
+        sameTimeBookingDto.setItemId(createdItemDto.getId());
+        assertEquals(BookingStatus.WAITING,
+                bookingService.createBooking(otherUserDto.getId(), sameTimeBookingDto).getStatus());
+    }
+
     @Test
     void getBookingById() {
         UserDto createdUser = userService.createUser(userDto);
@@ -258,19 +455,19 @@ public class BookingServiceImplTest {
         newUserDto.setEmail("newtest@test.ru");
         userDto.setEmail("newtest@test.ru");
         UserDto otherUserDto = userService.createUser(newUserDto);
-        bookingDto.setStart(LocalDateTime.now().minusDays(10));
-        bookingDto.setEnd(LocalDateTime.now().minusDays(5));
+        bookingDto.setStart(LocalDateTime.now().withNano(0).minusDays(10));
+        bookingDto.setEnd(LocalDateTime.now().withNano(0).minusDays(5));
         BookingResponseDto responsePastBooking = bookingService.createBooking(otherUserDto.getId(), bookingDto);
 
         BookingDto futureBookingDto = new BookingDto();
-        futureBookingDto.setStart(LocalDateTime.now().plusDays(5));
-        futureBookingDto.setEnd(LocalDateTime.now().plusDays(10));
+        futureBookingDto.setStart(LocalDateTime.now().withNano(0).plusDays(5));
+        futureBookingDto.setEnd(LocalDateTime.now().withNano(0).plusDays(10));
         futureBookingDto.setItemId(createdItemDto.getId());
         BookingResponseDto responseFutureBooking = bookingService.createBooking(otherUserDto.getId(), futureBookingDto);
 
         BookingDto currentBookingDto = new BookingDto();
-        currentBookingDto.setStart(LocalDateTime.now().minusDays(1));
-        currentBookingDto.setEnd(LocalDateTime.now().plusDays(1));
+        currentBookingDto.setStart(LocalDateTime.now().withNano(0).minusDays(1));
+        currentBookingDto.setEnd(LocalDateTime.now().withNano(0).plusDays(1));
         currentBookingDto.setItemId(createdItemDto.getId());
         BookingResponseDto responseCurrentBooking = bookingService.createBooking(otherUserDto.getId(), currentBookingDto);
 
@@ -327,6 +524,110 @@ public class BookingServiceImplTest {
         assertEquals(1, bookingsAll.size(), "Размер полученного списка вещей в любом состоянии не совпадает.");
     }
 
+    @Test
+    void getBookingsSummary() {
+        UserDto createdUser = userService.createUser(userDto);
+        ItemDto createdItemDto = itemService.createItem(createdUser.getId(), itemDto);
+        UserDto newUserDto = new UserDto();
+        newUserDto.setName("Test2");
+        newUserDto.setEmail("newtest@test.ru");
+        UserDto otherUserDto = userService.createUser(newUserDto);
+        assertEquals(new BookingSummaryDto(0L, 0L, 0L, 0L, 0L, 0L, 0L),
+                bookingService.getBookingsSummaryByOwner(createdUser.getId()));
+
+        bookingDto.setItemId(createdItemDto.getId());
+        bookingDto.setStart(LocalDateTime.now().withNano(0).minusDays(10));
+        bookingDto.setEnd(LocalDateTime.now().withNano(0).minusDays(5));
+        bookingService.createBooking(otherUserDto.getId(), bookingDto);
+        BookingDto futureBookingDto = new BookingDto();
+        futureBookingDto.setStart(LocalDateTime.now().withNano(0).plusDays(5));
+        futureBookingDto.setEnd(LocalDateTime.now().withNano(0).plusDays(10));
+        futureBookingDto.setItemId(createdItemDto.getId());
+        BookingResponseDto futureBooking = bookingService.createBooking(otherUserDto.getId(), futureBookingDto);
+        BookingDto currentBookingDto = new BookingDto();
+        currentBookingDto.setStart(LocalDateTime.now().withNano(0).minusDays(1));
+        currentBookingDto.setEnd(LocalDateTime.now().withNano(0).plusDays(1));
+        currentBookingDto.setItemId(createdItemDto.getId());
+        bookingService.createBooking(otherUserDto.getId(), currentBookingDto);
+        bookingService.approveBooking(createdUser.getId(), futureBooking.getId(), false);
+
+        BookingSummaryDto expected = new BookingSummaryDto(3L, 2L, 1L, 1L, 1L, 1L, 0L);
+        assertEquals(expected, bookingService.getBookingsSummaryByOwner(createdUser.getId()));
+        assertEquals(expected, bookingService.getBookingsSummaryByUser(otherUserDto.getId()));
+        assertEquals(new BookingSummaryDto(0L, 0L, 0L, 0L, 0L, 0L, 0L),
+                bookingService.getBookingsSummaryByUser(createdUser.getId()));
+        EntityNotExistException ex = assertThrows(EntityNotExistException.class,
+                () -> bookingService.getBookingsSummaryByOwner(100L));
+        assertEquals("Пользователь с id=100 не существует.", ex.getMessage());
+    }
+
+    @Test
+    void getBookingsFromArchive() {
+        UserDto createdUser = userService.createUser(userDto);
+        ItemDto createdItemDto = itemService.createItem(createdUser.getId(), itemDto);
+        UserDto newUserDto = new UserDto();
+        newUserDto.setName("Test2");
+        newUserDto.setEmail("newtest@test.ru");
+        UserDto otherUserDto = userService.createUser(newUserDto);
+        bookingDto.setItemId(createdItemDto.getId());
+        bookingDto.setStart(LocalDateTime.now().withNano(0).minusDays(10));
+        bookingDto.setEnd(LocalDateTime.now().withNano(0).minusDays(5));
+        BookingResponseDto pastBooking = bookingService.createBooking(otherUserDto.getId(), bookingDto);
+        pastBooking = bookingService.approveBooking(createdUser.getId(), pastBooking.getId(), true);
+        BookingDto futureBookingDto = new BookingDto();
+        futureBookingDto.setStart(LocalDateTime.now().withNano(0).plusDays(5));
+        futureBookingDto.setEnd(LocalDateTime.now().withNano(0).plusDays(10));
+        futureBookingDto.setItemId(createdItemDto.getId());
+        BookingResponseDto futureBooking = bookingService.createBooking(otherUserDto.getId(), futureBookingDto);
+        BookingDto rejectedBookingDto = new BookingDto();
+        rejectedBookingDto.setStart(LocalDateTime.now().withNano(0).minusDays(20));
+        rejectedBookingDto.setEnd(LocalDateTime.now().withNano(0).minusDays(15));
+        rejectedBookingDto.setItemId(createdItemDto.getId());
+        BookingResponseDto rejectedBooking = bookingService.createBooking(otherUserDto.getId(), rejectedBookingDto);
+        BookingDto waitingBookingDto = new BookingDto();
+        waitingBookingDto.setStart(LocalDateTime.now().withNano(0).minusDays(14));
+        waitingBookingDto.setEnd(LocalDateTime.now().withNano(0).minusDays(12));
+        waitingBookingDto.setItemId(createdItemDto.getId());
+        BookingResponseDto waitingBooking = bookingService.createBooking(otherUserDto.getId(), waitingBookingDto);
+        rejectedBooking = bookingService.approveBooking(createdUser.getId(), rejectedBooking.getId(), false);
+        assertEquals(3, bookingConflictIndex.findBusyIntervals(createdItemDto.getId(),
+                LocalDateTime.now().minusDays(30), LocalDateTime.now().plusDays(30)).size());
+
+        assertEquals(3, bookingArchiver.archive(LocalDateTime.now().minusDays(1)));
+        assertEquals(0, bookingArchiver.archive(LocalDateTime.now().minusDays(1)));
+        assertEquals(List.of(futureBooking.getId()), bookingConflictIndex.findBusyIntervals(createdItemDto.getId(),
+                        LocalDateTime.now().minusDays(30), LocalDateTime.now().plusDays(30)).stream()
+                .map(IntervalTree.Interval::getId)
+                .collect(Collectors.toList()));
+
+        assertEquals(List.of(futureBooking, pastBooking, waitingBooking, rejectedBooking),
+                bookingService.getBookingsByUser(otherUserDto.getId(), State.ALL.name(), 0, 10));
+        assertEquals(List.of(rejectedBooking),
+                bookingService.getBookingsByOwner(createdUser.getId(), State.REJECTED.name(), 0, 10));
+        assertEquals(List.of(futureBooking, waitingBooking),
+                bookingService.getBookingsByUser(otherUserDto.getId(), State.WAITING.name(), 0, 10));
+        assertEquals(List.of(waitingBooking), bookingService.getBookingsByUser(otherUserDto.getId(),
+                State.WAITING.name(), new SeekCursor(futureBooking.getStart(), futureBooking.getId()).encode(), 10)
+                .getBookings());
+        ValidationException ex = assertThrows(ValidationException.class,
+                () -> bookingService.getBookingsByUser(otherUserDto.getId(), State.ALL.name(), 20_000, 10));
+        assertEquals("Смещение не может быть больше 10000, используйте постраничный курсор.", ex.getMessage());
+        assertEquals(List.of(pastBooking, waitingBooking, rejectedBooking),
+                bookingService.getBookingsByOwner(createdUser.getId(), State.PAST.name(), 0, 10));
+        assertEquals(List.of(pastBooking, waitingBooking, rejectedBooking), bookingService.getBookingsByOwner(createdUser.getId(), State.ALL.name(),
+                new SeekCursor(futureBooking.getStart(), futureBooking.getId()).encode(), 10).getBookings());
+        assertEquals(pastBooking, bookingService.getBookingById(otherUserDto.getId(), pastBooking.getId()));
+        assertEquals(new BookingSummaryDto(4L, 2L, 0L, 1L, 3L, 1L, 0L),
+                bookingService.getBookingsSummaryByUser(otherUserDto.getId()));
+        assertEquals(pastBooking.getId(), itemService.getItemById(createdUser.getId(),
+                createdItemDto.getId()).getLastBooking().getId());
+
+        CommentDto commentDto = new CommentDto();
+        commentDto.setText("comment");
+        assertEquals("comment", itemService.createComment(otherUserDto.getId(), createdItemDto.getId(), commentDto)
+                .getText());
+    }
+
     @Test
     void getBookingsByOwnerPastFutureCurrent() {
         UserDto createdUser = userService.createUser(userDto);
@@ -337,19 +638,19 @@ public class BookingServiceImplTest {
         newUserDto.setEmail("newtest@test.ru");
         userDto.setEmail("newtest@test.ru");
         UserDto otherUserDto = userService.createUser(newUserDto);
-        bookingDto.setStart(LocalDateTime.now().minusDays(10));
-        bookingDto.setEnd(LocalDateTime.now().minusDays(5));
+        bookingDto.setStart(LocalDateTime.now().withNano(0).minusDays(10));
+        bookingDto.setEnd(LocalDateTime.now().withNano(0).minusDays(5));
         BookingResponseDto responsePastBooking = bookingService.createBooking(otherUserDto.getId(), bookingDto);
 
         BookingDto futureBookingDto = new BookingDto();
-        futureBookingDto.setStart(LocalDateTime.now().plusDays(5));
-        futureBookingDto.setEnd(LocalDateTime.now().plusDays(10));
+        futureBookingDto.setStart(LocalDateTime.now().withNano(0).plusDays(5));
+        futureBookingDto.setEnd(LocalDateTime.now().withNano(0).plusDays(10));
         futureBookingDto.setItemId(createdItemDto.getId());
         BookingResponseDto responseFutureBooking = bookingService.createBooking(otherUserDto.getId(), futureBookingDto);
 
         BookingDto currentBookingDto = new BookingDto();
-        currentBookingDto.setStart(LocalDateTime.now().minusDays(1));
-        currentBookingDto.setEnd(LocalDateTime.now().plusDays(1));
+        currentBookingDto.setStart(LocalDateTime.now().withNano(0).minusDays(1));
+        currentBookingDto.setEnd(LocalDateTime.now().withNano(0).plusDays(1));
         currentBookingDto.setItemId(createdItemDto.getId());
         BookingResponseDto responseCurrentBooking = bookingService.createBooking(otherUserDto.getId(), currentBookingDto);
 
@@ -370,10 +671,61 @@ public class BookingServiceImplTest {
         assertEquals(1, bookingsCurrent.size(), "Размер полученного списка вещей в состоянии CURRENT не совпадает.");
     }
 
+    @Test
+    void getBookingsByOwnerWithCursor() {
+        UserDto createdUser = userService.createUser(userDto);
+        ItemDto createdItemDto = itemService.createItem(createdUser.getId(), itemDto);
+        UserDto newUserDto = new UserDto();
+        newUserDto.setName("Test2");
+        newUserDto.setEmail("newtest@test.ru");
+        UserDto otherUserDto = userService.createUser(newUserDto);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        bookingDto.setItemId(createdItemDto.getId());
+        bookingDto.setStart(now.plusDays(1));
+        bookingDto.setEnd(now.plusDays(2));
+        BookingResponseDto firstBooking = bookingService.createBooking(otherUserDto.getId(), bookingDto);
+        bookingDto.setStart(now.plusDays(2));
+        bookingDto.setEnd(now.plusDays(3));
+        BookingResponseDto secondBooking = bookingService.createBooking(otherUserDto.getId(), bookingDto);
+        bookingDto.setStart(now.plusDays(3));
+        bookingDto.setEnd(now.plusDays(4));
+        BookingResponseDto thirdBooking = bookingService.createBooking(otherUserDto.getId(), bookingDto);
+
+        BookingPageDto firstPage = bookingService.getBookingsByOwner(createdUser.getId(), State.FUTURE.name(), "", 2);
+        assertEquals(List.of(thirdBooking, secondBooking), firstPage.getBookings(), "Первая страница не совпадает.");
+        assertNotNull(firstPage.getNextCursor(), "Курсор следующей страницы не получен.");
+
+        BookingPageDto secondPage = bookingService.getBookingsByOwner(createdUser.getId(), State.FUTURE.name(),
+                firstPage.getNextCursor(), 2);
+        assertEquals(List.of(firstBooking), secondPage.getBookings(), "Вторая страница не совпадает.");
+        assertNull(secondPage.getNextCursor(), "Курсор последней страницы должен отсутствовать.");
+
+        List<BookingResponseDto> offsetPage = bookingService.getBookingsByUser(otherUserDto.getId(), State.ALL.name(), 1, 2);
+        assertEquals(List.of(secondBooking, firstBooking), offsetPage, "Страница по смещению не совпадает.");
+    }
+
+    @Test
+    void getBookingsWithWrongCursor() {
+        UserDto createdUser = userService.createUser(userDto);
+        ValidationException ex = assertThrows(ValidationException.class,
+                () -> bookingService.getBookingsByUser(createdUser.getId(), State.ALL.name(), "wrong", 10));
+        assertEquals("Некорректный курсор: wrong.", ex.getMessage());
+    }
+
     @Test
     void getBookingsByOwnerNotExist() {
         EntityNotExistException ex = assertThrows(EntityNotExistException.class,
                 () -> bookingService.getBookingsByOwner(100L, State.ALL.name(), 0, 10));
         assertEquals("Пользователь с id=100 не существует.", ex.getMessage());
     }
+
+    private Booking saveBooking(Long itemId, Long bookerId, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(entityManager.getReference(Item.class, itemId));
+        booking.setBooker(entityManager.getReference(User.class, bookerId));
+        booking.setStart(bookingDto.getStart());
+        booking.setEnd(bookingDto.getEnd());
+        booking.setStatus(status);
+        return bookingRepository.saveAndFlush(booking);
+    }
 }
@@ -12,7 +12,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
@@ -36,6 +41,8 @@ public class ItemControllerTest {
     ObjectMapper mapper;
     @MockBean
     ItemService itemService;
+    @MockBean
+    ItemImporter itemImporter;
     @Autowired
     private MockMvc mvc;
 
@@ -138,7 +145,7 @@ public class ItemControllerTest {
 
     @Test
     void searchItem() throws Exception {
-        when(itemService.searchItem(any(String.class), any(Integer.class), any(Integer.class)))
+        when(itemService.searchItem(any(String.class), any(Boolean.class), any(Boolean.class), any(Integer.class), any(Integer.class)))
                 .thenReturn(List.of(itemDto));
         mvc.perform(get("/items/search?text=test")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -153,6 +160,66 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.[0].available", is(itemDto.getAvailable())));
     }
 
+    @Test
+    void suggestItemNames() throws Exception {
+        when(itemService.suggestItemNames(any(String.class), any(Integer.class)))
+                .thenReturn(List.of(itemDto.getName()));
+        mvc.perform(get("/items/suggest?prefix=te&limit=5")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, 1))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.[0]", is(itemDto.getName())));
+        Mockito
+                .verify(itemService, Mockito.times(1))
+                .suggestItemNames("te", 5);
+    }
+
+    @Test
+    void getItemComments() throws Exception {
+        when(itemService.getItemComments(any(Long.class), any(Long.class), any(Integer.class)))
+                .thenReturn(List.of(commentDto));
+        mvc.perform(get("/items/1/comments?after=5&limit=3")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, 1))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.[0].id", is(commentDto.getId()), Long.class))
+                .andExpect(jsonPath("$.[0].text", is(commentDto.getText())));
+        Mockito
+                .verify(itemService, Mockito.times(1))
+                .getItemComments(1L, 5L, 3);
+    }
+
+    @Test
+    void importItems() throws Exception {
+        ItemImportReportDto report = new ItemImportReportDto();
+        report.setReceived(2);
+        report.setImported(1);
+        report.setFailed(1);
+        report.getErrors().add(new ItemImportErrorDto(2L, "Невозможно создать вещь без названия."));
+        when(itemImporter.importItems(any(Long.class), any()))
+                .thenReturn(report);
+        List<ItemDto> items = List.of(itemDto, new ItemDto(null, null, "test description", true, null));
+        mvc.perform(post("/items/import")
+                        .content(mapper.writeValueAsString(items))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", is(2)))
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0].row", is(2)))
+                .andExpect(jsonPath("$.errors[0].message", is(report.getErrors().get(0).getMessage())));
+        Mockito
+                .verify(itemImporter, Mockito.times(1))
+                .importItems(any(Long.class), any());
+    }
+
     @Test
     void createComment() throws Exception {
         when(itemService.createComment(any(Long.class), any(Long.class), any()))
@@ -170,4 +237,21 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.created",
                         is(commentDto.getCreated().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))));
     }
+
+    @Test
+    void getItemAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 2, 0, 0, 0);
+        when(itemService.getItemAvailability(any(Long.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(new FreeSlotDto(from, to)));
+        mvc.perform(get("/items/1/availability")
+                        .param("from", from.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                        .param("to", to.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(USER_HEADER, 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].start", is(from.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))))
+                .andExpect(jsonPath("$.[0].end", is(to.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))));
+    }
 }
@@ -6,6 +6,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
@@ -41,16 +42,51 @@ public class ItemRepositoryTest {
         itemByName.setAvailable(true);
         itemByName.setOwner(user);
 
+        Item unavailableItem = new Item();
+        unavailableItem.setName("test");
+        unavailableItem.setDescription("test");
+        unavailableItem.setAvailable(false);
+        unavailableItem.setOwner(user);
+
         PageRequest pageable = PageRequest.of(0, 10);
 
         entityManager.persist(user);
         entityManager.persist(itemByDescription);
         entityManager.persist(itemByName);
+        entityManager.persist(unavailableItem);
 
-        List<Item> result = repository.searchItem("test", pageable);
+        List<ItemDto> result = repository.searchItem("test", pageable);
         assertAll(
                 () -> assertEquals(2, result.size()),
-                () -> assertThat(result).contains(itemByDescription),
-                () -> assertThat(result).contains(itemByName));
+                () -> assertThat(result).extracting(ItemDto::getId).contains(itemByDescription.getId()),
+                () -> assertThat(result).extracting(ItemDto::getId).contains(itemByName.getId()));
+    }
+
+    @DirtiesContext
+    @Test
+    void suggestNames() {
+        User user = new User();
+        user.setName("test");
+        user.setEmail("test@test.ru");
+        entityManager.persist(user);
+        for (String name : List.of("Дрель", "Дрель", "Дрель ударная", "Молоток")) {
+            Item item = new Item();
+            item.setName(name);
+            item.setDescription("description");
+            item.setAvailable(true);
+            item.setOwner(user);
+            entityManager.persist(item);
+        }
+        Item unavailableItem = new Item();
+        unavailableItem.setName("Дрель без патрона");
+        unavailableItem.setDescription("description");
+        unavailableItem.setAvailable(false);
+        unavailableItem.setOwner(user);
+        entityManager.persist(unavailableItem);
+
+        assertEquals(List.of("Дрель", "Дрель ударная"), repository.suggestNames("дре", PageRequest.of(0, 10)));
+        assertEquals(List.of("Дрель"), repository.suggestNames("дре", PageRequest.of(0, 1)));
+        assertEquals(List.of("Дрель ударная"), repository.suggestNames("УДАР", PageRequest.of(0, 10)));
+        assertEquals(List.of(), repository.suggestNames("рель", PageRequest.of(0, 10)));
     }
 }
@@ -0,0 +1,301 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemCommentCountReconciler;
+import ru.practicum.shareit.item.service.ItemImporter;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The search index only takes writes once their transaction commits, so these tests run without a test
+ * transaction and remove the users they create afterwards.
+ */
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemSearchIndexTest {
+    private final ItemService itemService;
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final ItemRequestService requestService;
+    private final BookingService bookingService;
+    private final ItemRepository itemRepository;
+    private final ItemCommentCountReconciler commentCountReconciler;
+    private final ItemImporter itemImporter;
+    private final ItemSearchIndex searchIndex;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final List<Long> createdUsers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (int i = createdUsers.size() - 1; i >= 0; i--) {
+            if (userRepository.existsById(createdUsers.get(i))) {
+                userService.deleteUser(createdUsers.get(i));
+            }
+        }
+    }
+
+    @Test
+    void searchItem() {
+        UserDto createdUser = createUser("test", "search-test@test.ru");
+        ItemDto createdItemDto = itemService.createItem(createdUser.getId(),
+                new ItemDto(null, "test", "test description", true, null));
+        List<ItemDto> items = itemService.searchItem("test", false, false, 0, 10);
+        assertEquals(createdItemDto.getDescription(), items.get(0).getDescription(), "Описание не совпадает.");
+        assertEquals(createdItemDto.getName(), items.get(0).getName(), "Имя не совпадает.");
+        assertEquals(1, items.size(), "Размер списка не совпадает.");
+    }
+
+    @Test
+    void searchItemFromIndex() throws InterruptedException {
+        assertTrue(searchIndex.awaitReady(Duration.ofSeconds(10)), "Поисковый индекс не загружен.");
+        UserDto createdUser = createUser("test", "search-test@test.ru");
+        ItemDto drill = itemService.createItem(createdUser.getId(), new ItemDto(null, "Дрель", "ударная", true, null));
+        ItemDto hammer = itemService.createItem(createdUser.getId(),
+                new ItemDto(null, "Молоток", "для дрели не подходит", true, null));
+        ItemDto brokenDrill = itemService.createItem(createdUser.getId(),
+                new ItemDto(null, "Дрель сломанная", "не работает", false, null));
+        assertEquals(List.of(drill, hammer), itemService.searchItem("ДРЕЛ", false, false, 0, 10),
+                "Результаты поиска не совпадают.");
+        assertEquals(List.of(hammer), itemService.searchItem("дрел", false, false, 1, 10), "Результаты поиска не совпадают.");
+        assertEquals(List.of(), itemService.searchItem("перфоратор", false, false, 0, 10), "Результаты поиска не совпадают.");
+
+        ItemDto update = new ItemDto();
+        update.setAvailable(true);
+        update.setDescription("починена");
+        ItemDto repairedDrill = itemService.updateItem(createdUser.getId(), brokenDrill.getId(), update);
+        itemService.deleteItem(createdUser.getId(), hammer.getId());
+        ItemDto perforator = itemService.createItem(createdUser.getId(),
+                new ItemDto(null, "Перфоратор", "ударный", true, null));
+        assertEquals(List.of(drill, repairedDrill), itemService.searchItem("дрель", false, false, 0, 10),
+                "Результаты поиска не совпадают.");
+        assertEquals(List.of(), itemService.searchItem("молоток", false, false, 0, 10), "Результаты поиска не совпадают.");
+        assertEquals(List.of(perforator), itemService.searchItem("перфоратор", false, false, 0, 10),
+                "Результаты поиска не совпадают.");
+        assertEquals(List.of(repairedDrill), itemService.searchItem("почин", false, false, 0, 10), "Результаты поиска не совпадают.");
+        assertEquals(List.of(), itemService.searchItem("работает", false, false, 0, 10), "Результаты поиска не совпадают.");
+
+        userService.deleteUser(createdUser.getId());
+        assertEquals(List.of(), itemService.searchItem("дрель", false, false, 0, 10), "Результаты поиска не совпадают.");
+    }
+
+    @Test
+    void searchItemRanked() throws InterruptedException {
+        assertTrue(searchIndex.awaitReady(Duration.ofSeconds(10)), "Поисковый индекс не загружен.");
+        UserDto createdUser = createUser("test", "search-test@test.ru");
+        ItemDto drill = itemService.createItem(createdUser.getId(),
+                new ItemDto(null, "Дрель ударная", "мощная, для бетона", true, null));
+        ItemDto hammer = itemService.createItem(createdUser.getId(),
+                new ItemDto(null, "Молоток", "забивать гвозди рядом с дрелью", true, null));
+        ItemDto bits = itemService.createItem(createdUser.getId(),
+                new ItemDto(null, "Набор свёрл", "для дрели и шуруповёрта", true, null));
+        itemService.createItem(createdUser.getId(), new ItemDto(null, "Дрель", "сломана", false, null));
+        ItemDto cordless = itemService.createItem(createdUser.getId(),
+                new ItemDto(null, "Cordless drill", "drilling concrete", true, null));
+
+        assertEquals(List.of(drill, bits, hammer), itemService.searchItem("дрели", true, false, 0, 10),
+                "Результаты поиска не совпадают.");
+        assertEquals(List.of(bits), itemService.searchItem("дрели", true, false, 1, 1),
+                "Результаты поиска не совпадают.");
+        assertEquals(List.of(bits), itemService.searchItem("сверло", true, false, 0, 10),
+                "Результаты поиска не совпадают.");
+        assertEquals(List.of(cordless), itemService.searchItem("Drills", true, false, 0, 10),
+                "Результаты поиска не совпадают.");
+        assertEquals(List.of(), itemService.searchItem("перфоратор", true, false, 0, 10),
+                "Результаты поиска не совпадают.");
+    }
+
+    @Test
+    void searchItemFuzzy() throws InterruptedException {
+        assertTrue(searchIndex.awaitReady(Duration.ofSeconds(10)), "Поисковый индекс не загружен.");
+        UserDto createdUser = createUser("test", "search-test@test.ru");
+        ItemDto screwdriver = itemService.createItem(createdUser.getId(),
+                new ItemDto(null, "Шуруповёрт", "аккумуляторный", true, null));
+        ItemDto tent = itemService.createItem(createdUser.getId(),
+                new ItemDto(null, "Палатка", "четырехместная", true, null));
+        itemService.createItem(createdUser.getId(), new ItemDto(null, "Пила", "ножовка", true, null));
+
+        assertEquals(List.of(), itemService.searchItem("шуроповерт", true, false, 0, 10),
+                "Результаты поиска не совпадают.");
+        assertEquals(List.of(screwdriver), itemService.searchItem("шуроповерт", false, true, 0, 10),
+                "Результаты поиска не совпадают.");
+        assertEquals(List.of(tent), itemService.searchItem("паладка", false, true, 0, 10),
+                "Результаты поиска не совпадают.");
+        assertEquals(List.of(screwdriver, tent), itemService.searchItem("палатка шуруповерт", false, true, 0, 10),
+                "Результаты поиска не совпадают.");
+        assertEquals(List.of(), itemService.searchItem("пол", false, true, 0, 10), "Результаты поиска не совпадают.");
+    }
+
+    @Test
+    void searchItemCached() throws InterruptedException {
+        assertTrue(searchIndex.awaitReady(Duration.ofSeconds(10)), "Поисковый индекс не загружен.");
+        UserDto createdUser = createUser("test", "search-test@test.ru");
+        ItemDto drill = itemService.createItem(createdUser.getId(), new ItemDto(null, "Дрель", "ударная", true, null));
+        double hits = meterRegistry.counter("shareit.item.search.cache.hits").count();
+
+        assertEquals(List.of(drill), itemService.searchItem("дрель", false, false, 0, 10),
+                "Результаты поиска не совпадают.");
+        assertEquals(List.of(drill), itemService.searchItem("ДРЕЛЬ", false, false, 0, 10),
+                "Результаты поиска не совпадают.");
+        assertEquals(List.of(drill), itemService.searchItem("дрели", true, false, 0, 10),
+                "Результаты поиска не совпадают.");
+        assertEquals(List.of(drill), itemService.searchItem("Дрель", true, false, 0, 10),
+                "Результаты поиска не совпадают.");
+        assertEquals(hits + 2, meterRegistry.counter("shareit.item.search.cache.hits").count(),
+                "Число попаданий в кэш не совпадает.");
+
+        itemService.createItem(createdUser.getId(), new ItemDto(null, "Молоток", "забивать гвозди", true, null));
+        assertEquals(List.of(drill), itemService.searchItem("дрель", false, false, 0, 10),
+                "Результаты поиска не совпадают.");
+        assertEquals(hits + 3, meterRegistry.counter("shareit.item.search.cache.hits").count(),
+                "Число попаданий в кэш не совпадает.");
+
+        ItemDto otherDrill = itemService.createItem(createdUser.getId(),
+                new ItemDto(null, "Перфоратор", "не дрель", true, null));
+        assertEquals(List.of(drill, otherDrill), itemService.searchItem("дрель", false, false, 0, 10),
+                "Результаты поиска не совпадают.");
+        assertEquals(List.of(drill, otherDrill), itemService.searchItem("дрели", true, false, 0, 10),
+                "Результаты поиска не совпадают.");
+        itemService.updateItem(createdUser.getId(), drill.getId(), new ItemDto(null, null, null, false, null));
+        assertEquals(List.of(otherDrill), itemService.searchItem("дрель", false, false, 0, 10),
+                "Результаты поиска не совпадают.");
+        itemService.deleteItem(createdUser.getId(), otherDrill.getId());
+        assertEquals(List.of(), itemService.searchItem("дрели", true, false, 0, 10),
+                "Результаты поиска не совпадают.");
+        assertEquals(hits + 3, meterRegistry.counter("shareit.item.search.cache.hits").count(),
+                "Число попаданий в кэш не совпадает.");
+    }
+
+    @Test
+    void suggestItemNames() throws InterruptedException {
+        assertTrue(searchIndex.awaitReady(Duration.ofSeconds(10)), "Поисковый индекс не загружен.");
+        UserDto createdUser = createUser("test", "search-test@test.ru");
+        ItemDto drill = itemService.createItem(createdUser.getId(), new ItemDto(null, "Дрель", "сетевая", true, null));
+        ItemDto otherDrill = itemService.createItem(createdUser.getId(),
+                new ItemDto(null, "дрель", "аккумуляторная", true, null));
+        itemService.createItem(createdUser.getId(), new ItemDto(null, "Дрель ударная", "мощная", true, null));
+        ItemDto hiddenDrill = itemService.createItem(createdUser.getId(),
+                new ItemDto(null, "Ударная дрель", "сломана", false, null));
+
+        assertEquals(List.of("Дрель", "Дрель ударная"), itemService.suggestItemNames("дре", 10),
+                "Подсказки не совпадают.");
+        assertEquals(List.of("Дрель ударная"), itemService.suggestItemNames("  УДАР", 10), "Подсказки не совпадают.");
+        assertEquals(List.of(), itemService.suggestItemNames("молоток", 10), "Подсказки не совпадают.");
+
+        itemService.updateItem(createdUser.getId(), hiddenDrill.getId(), new ItemDto(null, null, null, true, null));
+        assertEquals(List.of("Дрель"), itemService.suggestItemNames("дре", 1), "Подсказки не совпадают.");
+        assertEquals(List.of("Дрель ударная", "Ударная дрель"), itemService.suggestItemNames("удар", 10),
+                "Подсказки не совпадают.");
+
+        itemService.deleteItem(createdUser.getId(), drill.getId());
+        itemService.updateItem(createdUser.getId(), otherDrill.getId(),
+                new ItemDto(null, "Перфоратор", null, null, null));
+        assertEquals(List.of("Дрель ударная", "Ударная дрель"), itemService.suggestItemNames("дре", 10),
+                "Подсказки не совпадают.");
+        assertEquals(List.of("Перфоратор"), itemService.suggestItemNames("п", 10), "Подсказки не совпадают.");
+    }
+
+    @Test
+    void commentCount() throws InterruptedException {
+        assertTrue(searchIndex.awaitReady(Duration.ofSeconds(10)), "Поисковый индекс не загружен.");
+        UserDto createdUser = createUser("test", "search-test@test.ru");
+        ItemDto createdItemDto = itemService.createItem(createdUser.getId(),
+                new ItemDto(null, "Дрель", "ударная", true, null));
+        UserDto otherUserDto = createUser("Test2", "search-newtest@test.ru");
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setItemId(createdItemDto.getId());
+        bookingDto.setStart(LocalDateTime.of(2000, 1, 1, 14, 0, 0));
+        bookingDto.setEnd(LocalDateTime.now().minusHours(1));
+        bookingService.createBooking(otherUserDto.getId(), bookingDto);
+        assertEquals(0, itemService.searchItem("дрель", false, false, 0, 10).get(0).getCommentCount(),
+                "Количество комментариев не совпадает.");
+        CommentDto commentDto = new CommentDto();
+        commentDto.setText("comment");
+        itemService.createComment(otherUserDto.getId(), createdItemDto.getId(), commentDto);
+        itemService.createComment(otherUserDto.getId(), createdItemDto.getId(), commentDto);
+
+        assertEquals(2, itemService.getUserItems(createdUser.getId(), 0, 10).get(0).getCommentCount(),
+                "Количество комментариев не совпадает.");
+        assertEquals(2, itemService.searchItem("дрель", false, false, 0, 10).get(0).getCommentCount(),
+                "Количество комментариев не совпадает.");
+        assertEquals(2, itemService.searchItem("дрель", true, false, 0, 10).get(0).getCommentCount(),
+                "Количество комментариев не совпадает.");
+        assertEquals(2, itemService.getItemById(createdUser.getId(), createdItemDto.getId()).getCommentCount(),
+                "Количество комментариев не совпадает.");
+
+        transactionTemplate.executeWithoutResult(status ->
+                itemRepository.incrementCommentCount(createdItemDto.getId()));
+        assertTrue(commentCountReconciler.reconcile() >= 1);
+        assertEquals(2, itemService.getUserItems(createdUser.getId(), 0, 10).get(0).getCommentCount(),
+                "Количество комментариев не совпадает.");
+        assertEquals(0, commentCountReconciler.reconcile());
+    }
+
+    @Test
+    void importItems() throws InterruptedException {
+        assertTrue(searchIndex.awaitReady(Duration.ofSeconds(10)), "Поисковый индекс не загружен.");
+        UserDto createdUser = createUser("test", "search-test@test.ru");
+        UserDto otherUserDto = createUser("Test2", "search-newtest@test.ru");
+        ItemRequestDto requestDto = new ItemRequestDto();
+        requestDto.setDescription("test");
+        ItemRequestDto createdRequest = requestService.createRequest(otherUserDto.getId(), requestDto);
+        List<ItemDto> items = List.of(
+                new ItemDto(null, "Дрель", "ударная", true, null),
+                new ItemDto(null, "", "ударная", true, null),
+                new ItemDto(null, "Перфоратор", "для бетона", false, createdRequest.getId()),
+                new ItemDto(null, "Лобзик", "x".repeat(251), true, null),
+                new ItemDto(null, "Шуруповерт", "аккумуляторный", true, 1000L));
+
+        ItemImportReportDto report = itemImporter.importItems(createdUser.getId(), items);
+        assertEquals(5, report.getReceived(), "Количество строк не совпадает.");
+        assertEquals(2, report.getImported(), "Количество созданных вещей не совпадает.");
+        assertEquals(3, report.getFailed(), "Количество ошибок не совпадает.");
+        assertEquals(List.of(new ItemImportErrorDto(2L, "Невозможно создать вещь без названия."),
+                        new ItemImportErrorDto(4L, "Описание вещи длиннее 250 символов."),
+                        new ItemImportErrorDto(5L, "Запрос с id=1000 не существует.")),
+                report.getErrors(), "Ошибки не совпадают.");
+
+        List<ItemBookingDto> userItems = itemService.getUserItems(createdUser.getId(), 0, 10);
+        assertEquals(2, userItems.size(), "Количество вещей не совпадает.");
+        assertEquals(createdRequest.getId(), userItems.get(1).getRequestId(), "Id запроса не совпадает.");
+        assertEquals(List.of(userItems.get(0).getId()), itemService.searchItem("дрель", false, false, 0, 10).stream()
+                .map(ItemDto::getId).collect(Collectors.toList()), "Результаты поиска не совпадают.");
+    }
+
+    private UserDto createUser(String name, String email) {
+        UserDto userDto = new UserDto();
+        userDto.setName(name);
+        userDto.setEmail(email);
+        UserDto createdUser = userService.createUser(userDto);
+        createdUsers.add(createdUser.getId());
+        return createdUser;
+    }
+}
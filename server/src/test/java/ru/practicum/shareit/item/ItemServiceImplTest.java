@@ -8,12 +8,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingDatesResolver;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingPointerSweeper;
 import ru.practicum.shareit.exception.EntityNotExistException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -33,6 +38,10 @@ public class ItemServiceImplTest {
     private final UserService userService;
     private final ItemRequestService requestService;
     private final BookingService bookingService;
+    private final ItemBookingPointerSweeper pointerSweeper;
+    private final BookingDatesResolver bookingDatesResolver;
+    private final ItemRepository itemRepository;
+    private final ItemImporter itemImporter;
     private ItemDto itemDto;
     private UserDto userDto;
     private ItemRequestDto requestDto;
@@ -133,9 +142,10 @@ public class ItemServiceImplTest {
     void deleteItemUserNotExist() {
         UserDto createdUser = userService.createUser(userDto);
         ItemDto createdItemDto = itemService.createItem(createdUser.getId(), itemDto);
+        Long otherUserId = createdUser.getId() + 1;
         EntityNotExistException ex = assertThrows(EntityNotExistException.class,
-                () -> itemService.deleteItem(100L,createdItemDto.getId()));
-        assertEquals("Пользователь с id=100 не владелец вещи.", ex.getMessage());
+                () -> itemService.deleteItem(otherUserId, createdItemDto.getId()));
+        assertEquals(String.format("Пользователь с id=%d не владелец вещи.", otherUserId), ex.getMessage());
     }
 
     @Test
@@ -180,30 +190,142 @@ public class ItemServiceImplTest {
     }
 
     @Test
-    void getItemsUserNotExist() {
-        EntityNotExistException ex = assertThrows(EntityNotExistException.class,
-                () -> itemService.getUserItems(100L,0, 10));
-        assertEquals("Пользователь с id=100 не существует.", ex.getMessage());
+    void getUserItemsWithBookings() {
+        UserDto createdUser = userService.createUser(userDto);
+        ItemDto firstItemDto = itemService.createItem(createdUser.getId(), itemDto);
+        ItemDto secondItemDto = itemService.createItem(createdUser.getId(), itemDto);
+
+        UserDto newUserDto = new UserDto();
+        newUserDto.setName("Test2");
+        newUserDto.setEmail("newtest@test.ru");
+        UserDto otherUserDto = userService.createUser(newUserDto);
+        BookingDto pastBookingDto = new BookingDto();
+        pastBookingDto.setItemId(firstItemDto.getId());
+        pastBookingDto.setStart(LocalDateTime.now().minusDays(3));
+        pastBookingDto.setEnd(LocalDateTime.now().minusDays(2));
+        BookingResponseDto olderBooking = bookingService.createBooking(otherUserDto.getId(), pastBookingDto);
+        pastBookingDto.setStart(LocalDateTime.now().minusDays(2));
+        pastBookingDto.setEnd(LocalDateTime.now().minusDays(1));
+        BookingResponseDto lastBooking = bookingService.createBooking(otherUserDto.getId(), pastBookingDto);
+
+        BookingDto futureBookingDto = new BookingDto();
+        futureBookingDto.setItemId(secondItemDto.getId());
+        futureBookingDto.setStart(LocalDateTime.now().plusDays(3));
+        futureBookingDto.setEnd(LocalDateTime.now().plusDays(4));
+        BookingResponseDto laterBooking = bookingService.createBooking(otherUserDto.getId(), futureBookingDto);
+        futureBookingDto.setStart(LocalDateTime.now().plusDays(1));
+        futureBookingDto.setEnd(LocalDateTime.now().plusDays(2));
+        BookingResponseDto nextBooking = bookingService.createBooking(otherUserDto.getId(), futureBookingDto);
+
+        bookingService.approveBooking(createdUser.getId(), olderBooking.getId(), true);
+        bookingService.approveBooking(createdUser.getId(), lastBooking.getId(), true);
+        bookingService.approveBooking(createdUser.getId(), laterBooking.getId(), true);
+        bookingService.approveBooking(createdUser.getId(), nextBooking.getId(), true);
+        List<ItemBookingDto> items = itemService.getUserItems(createdUser.getId(), 0, 10);
+
+        assertEquals(2, items.size(), "Размер списка не совпадает.");
+        assertEquals(lastBooking.getId(), items.get(0).getLastBooking().getId(), "Id последнего бронирования не совпадает.");
+        assertNull(items.get(0).getNextBooking(), "Следующее бронирование не должно быть найдено.");
+        assertNull(items.get(1).getLastBooking(), "Последнее бронирование не должно быть найдено.");
+        assertEquals(nextBooking.getId(), items.get(1).getNextBooking().getId(), "Id следующего бронирования не совпадает.");
     }
 
     @Test
-    void searchItem() {
+    void bookingPointersFollowClockAndRepairDrift() {
         UserDto createdUser = userService.createUser(userDto);
         ItemDto createdItemDto = itemService.createItem(createdUser.getId(), itemDto);
-        List<ItemDto> items = itemService.searchItem("test", 0, 10);
-        assertEquals(createdItemDto.getDescription(), items.get(0).getDescription(), "Описание не совпадает.");
-        assertEquals(createdItemDto.getName(), items.get(0).getName(), "Имя не совпадает.");
-        assertEquals(1, items.size(), "Размер списка не совпадает.");
+        UserDto newUserDto = new UserDto();
+        newUserDto.setName("Test2");
+        newUserDto.setEmail("newtest@test.ru");
+        UserDto otherUserDto = userService.createUser(newUserDto);
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setItemId(createdItemDto.getId());
+        bookingDto.setStart(LocalDateTime.now().plusDays(1));
+        bookingDto.setEnd(LocalDateTime.now().plusDays(2));
+        BookingResponseDto firstBooking = bookingService.createBooking(otherUserDto.getId(), bookingDto);
+        bookingDto.setStart(LocalDateTime.now().plusDays(3));
+        bookingDto.setEnd(LocalDateTime.now().plusDays(4));
+        BookingResponseDto secondBooking = bookingService.createBooking(otherUserDto.getId(), bookingDto);
+        bookingService.approveBooking(createdUser.getId(), firstBooking.getId(), true);
+        bookingService.approveBooking(createdUser.getId(), secondBooking.getId(), true);
+
+        ItemBookingDto readItem = itemService.getItemById(createdUser.getId(), createdItemDto.getId());
+        assertNull(readItem.getLastBooking(), "Последнее бронирование не должно быть найдено.");
+        assertEquals(firstBooking.getId(), readItem.getNextBooking().getId(), "Id следующего бронирования не совпадает.");
+
+        assertTrue(pointerSweeper.sweep(LocalDateTime.now().plusDays(2)) >= 1);
+        readItem = itemService.getItemById(createdUser.getId(), createdItemDto.getId());
+        assertEquals(firstBooking.getId(), readItem.getLastBooking().getId(), "Id последнего бронирования не совпадает.");
+        assertEquals(secondBooking.getId(), readItem.getNextBooking().getId(), "Id следующего бронирования не совпадает.");
+
+        itemRepository.updateBookingPointers(createdItemDto.getId(), secondBooking.getId(), null);
+        assertEquals(List.of(createdItemDto.getId()),
+                bookingDatesResolver.findDrifted(List.of(createdItemDto.getId()), LocalDateTime.now()),
+                "Расхождение указателей не найдено.");
+        assertTrue(pointerSweeper.reconcile(LocalDateTime.now()) >= 1);
+        assertEquals(List.of(), bookingDatesResolver.findDrifted(List.of(createdItemDto.getId()), LocalDateTime.now()),
+                "Указатели не исправлены.");
+        readItem = itemService.getItemById(createdUser.getId(), createdItemDto.getId());
+        assertNull(readItem.getLastBooking(), "Последнее бронирование не должно быть найдено.");
+        assertEquals(firstBooking.getId(), readItem.getNextBooking().getId(), "Id следующего бронирования не совпадает.");
+    }
+
+    @Test
+    void getItemsUserNotExist() {
+        EntityNotExistException ex = assertThrows(EntityNotExistException.class,
+                () -> itemService.getUserItems(100L,0, 10));
+        assertEquals("Пользователь с id=100 не существует.", ex.getMessage());
     }
 
     @Test
     void searchItemEmptyText() {
         UserDto createdUser = userService.createUser(userDto);
         itemService.createItem(createdUser.getId(), itemDto);
-        List<ItemDto> items = itemService.searchItem("", 0, 10);
+        List<ItemDto> items = itemService.searchItem("", false, false, 0, 10);
         assertEquals(0, items.size());
     }
 
+    @Test
+    void getItemAvailability() {
+        UserDto createdUser = userService.createUser(userDto);
+        ItemDto createdItemDto = itemService.createItem(createdUser.getId(), itemDto);
+        UserDto newUserDto = new UserDto();
+        newUserDto.setName("Test2");
+        newUserDto.setEmail("newtest@test.ru");
+        UserDto otherUserDto = userService.createUser(newUserDto);
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        assertEquals(List.of(new FreeSlotDto(from, to)),
+                itemService.getItemAvailability(createdItemDto.getId(), from, to), "Свободные интервалы не совпадают.");
+
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setItemId(createdItemDto.getId());
+        bookingDto.setStart(from.plusDays(1));
+        bookingDto.setEnd(from.plusDays(2));
+        bookingService.createBooking(otherUserDto.getId(), bookingDto);
+        bookingDto.setStart(from.plusDays(2));
+        bookingDto.setEnd(from.plusDays(3));
+        bookingService.createBooking(otherUserDto.getId(), bookingDto);
+        bookingDto.setStart(from.plusDays(5));
+        bookingDto.setEnd(to.plusDays(1));
+        BookingResponseDto rejectedBooking = bookingService.createBooking(otherUserDto.getId(), bookingDto);
+
+        assertEquals(List.of(new FreeSlotDto(from, from.plusDays(1)), new FreeSlotDto(from.plusDays(3), from.plusDays(5))),
+                itemService.getItemAvailability(createdItemDto.getId(), from, to), "Свободные интервалы не совпадают.");
+
+        bookingService.approveBooking(createdUser.getId(), rejectedBooking.getId(), false);
+        assertEquals(List.of(new FreeSlotDto(from, from.plusDays(1)), new FreeSlotDto(from.plusDays(3), to)),
+                itemService.getItemAvailability(createdItemDto.getId(), from, to), "Свободные интервалы не совпадают.");
+    }
+
+    @Test
+    void getItemAvailabilityWrongPeriod() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0, 0);
+        ValidationException ex = assertThrows(ValidationException.class,
+                () -> itemService.getItemAvailability(100L, from, from));
+        assertEquals("Начало периода должно быть раньше окончания.", ex.getMessage());
+    }
+
     @Test
     void createComment() {
         UserDto createdUser = userService.createUser(userDto);
@@ -226,6 +348,94 @@ public class ItemServiceImplTest {
         assertEquals("comment", readItemDto.getComments().get(0).getText(), "Текст комментария не совпадает.");
     }
 
+    @Test
+    void getItemComments() {
+        UserDto createdUser = userService.createUser(userDto);
+        ItemDto createdItemDto = itemService.createItem(createdUser.getId(), itemDto);
+        UserDto newUserDto = new UserDto();
+        newUserDto.setName("Test2");
+        newUserDto.setEmail("newtest@test.ru");
+        UserDto otherUserDto = userService.createUser(newUserDto);
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setItemId(createdItemDto.getId());
+        bookingDto.setStart(LocalDateTime.of(2000, 1, 1, 14, 0, 0));
+        bookingDto.setEnd(LocalDateTime.now().minusHours(1));
+        bookingService.createBooking(otherUserDto.getId(), bookingDto);
+        for (int i = 0; i < 12; i++) {
+            CommentDto commentDto = new CommentDto();
+            commentDto.setText("comment" + i);
+            itemService.createComment(otherUserDto.getId(), createdItemDto.getId(), commentDto);
+        }
+
+        List<CommentDto> detailComments = itemService.getItemById(createdUser.getId(), createdItemDto.getId())
+                .getComments();
+        assertEquals(10, detailComments.size(), "Количество комментариев не совпадает.");
+        assertEquals("comment2", detailComments.get(0).getText(), "Текст комментария не совпадает.");
+        assertEquals("comment11", detailComments.get(9).getText(), "Текст комментария не совпадает.");
+
+        List<CommentDto> firstPage = itemService.getItemComments(createdItemDto.getId(), 0L, 5);
+        assertEquals(5, firstPage.size(), "Количество комментариев не совпадает.");
+        assertEquals("comment0", firstPage.get(0).getText(), "Текст комментария не совпадает.");
+        assertEquals("Test2", firstPage.get(0).getAuthorName(), "Имя автора не совпадает.");
+        List<CommentDto> lastPage = itemService.getItemComments(createdItemDto.getId(),
+                firstPage.get(4).getId(), 10);
+        assertEquals(7, lastPage.size(), "Количество комментариев не совпадает.");
+        assertEquals("comment5", lastPage.get(0).getText(), "Текст комментария не совпадает.");
+        assertEquals(List.of(), itemService.getItemComments(createdItemDto.getId(), lastPage.get(6).getId(), 10),
+                "Комментарии не совпадают.");
+    }
+
+    @Test
+    void importItemsUserNotExist() {
+        EntityNotExistException ex = assertThrows(EntityNotExistException.class,
+                () -> itemImporter.importItems(100L, List.of(itemDto)));
+        assertEquals("Пользователь с id=100 не существует.", ex.getMessage());
+    }
+
+    @Test
+    void getItemCommentsItemNotExist() {
+        EntityNotExistException ex = assertThrows(EntityNotExistException.class,
+                () -> itemService.getItemComments(100L, 0L, 10));
+        assertEquals("Вещь с id=100 не существует.", ex.getMessage());
+    }
+
+    @Test
+    void getItemByIdAfterWrites() {
+        UserDto createdUser = userService.createUser(userDto);
+        ItemDto createdItemDto = itemService.createItem(createdUser.getId(), itemDto);
+        UserDto newUserDto = new UserDto();
+        newUserDto.setName("Test2");
+        newUserDto.setEmail("newtest@test.ru");
+        UserDto otherUserDto = userService.createUser(newUserDto);
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setItemId(createdItemDto.getId());
+        bookingDto.setStart(LocalDateTime.of(2000, 1, 1, 14, 0, 0));
+        bookingDto.setEnd(LocalDateTime.now().minusHours(1));
+        bookingService.createBooking(otherUserDto.getId(), bookingDto);
+        assertEquals(List.of(), itemService.getItemById(otherUserDto.getId(), createdItemDto.getId()).getComments(),
+                "Комментарии не совпадают.");
+
+        CommentDto commentDto = new CommentDto();
+        commentDto.setText("comment");
+        itemService.createComment(otherUserDto.getId(), createdItemDto.getId(), commentDto);
+        ItemBookingDto readItemDto = itemService.getItemById(otherUserDto.getId(), createdItemDto.getId());
+        assertEquals("comment", readItemDto.getComments().get(0).getText(), "Текст комментария не совпадает.");
+
+        itemService.updateItem(createdUser.getId(), createdItemDto.getId(), new ItemDto(null, "test2", null, null, null));
+        assertEquals("test2", itemService.getItemById(otherUserDto.getId(), createdItemDto.getId()).getName(),
+                "Имя вещи не совпадает.");
+
+        UserDto renamedUserDto = new UserDto();
+        renamedUserDto.setName("Test3");
+        userService.updateUser(otherUserDto.getId(), renamedUserDto);
+        assertEquals("Test3", itemService.getItemById(otherUserDto.getId(), createdItemDto.getId()).getComments()
+                .get(0).getAuthorName(), "Имя автора не совпадает.");
+
+        itemService.deleteItem(createdUser.getId(), createdItemDto.getId());
+        assertThrows(EntityNotExistException.class,
+                () -> itemService.getItemById(otherUserDto.getId(), createdItemDto.getId()));
+    }
+
     @Test
     void createCommentUserNotExist() {
         CommentDto commentDto = new CommentDto();